@@ -1,7 +1,17 @@
 package notification_engine;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Notification Engine System
@@ -11,6 +21,7 @@ import java.util.List;
  * - Observer Pattern: For notifying multiple observers when notifications are sent
  * - Strategy Pattern: For different notification delivery methods
  * - Singleton Pattern: For ensuring single instance of NotificationService
+ * - Producer-Consumer Pattern: For sharded, concurrent delivery inside NotificationService
  */
 
 // Decorator Pattern: Component Interface
@@ -42,6 +53,8 @@ class SimpleNotification implements INotification {
 // Maintains a reference to a component object and defines an interface
 // that conforms to the component's interface. All concrete decorators
 // will extend this class.
+// A decorator only contributes text before and/or after the wrapped content, which lets
+// RenderedNotification flatten a whole chain into one prefix and one suffix.
 abstract class INotificationDecorator implements INotification {
 
     protected INotification wrapped;
@@ -50,9 +63,84 @@ abstract class INotificationDecorator implements INotification {
         this.wrapped = wrapped;
     }
 
+    protected String getPrefix() {
+        return "";
+    }
+
+    protected String getSuffix() {
+        return "";
+    }
+
     @Override
-    public String getContent() {
-        return wrapped.getContent();
+    public final String getContent() {
+        return getPrefix() + wrapped.getContent() + getSuffix();
+    }
+
+}
+
+// Coarse Clock
+// Hands out the "[yyyy-MM-dd HH:mm:ss.SSS]: " prefix for the current millisecond.
+// The date and time up to the second is formatted once per second; within that second only
+// the three millisecond digits are patched in, once per millisecond. Every caller in the same
+// millisecond gets the same cached String, so timestamping costs no formatting or allocation.
+class CachedTimestampClock {
+
+    private static final DateTimeFormatter SECONDS = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final CachedTimestampClock SYSTEM = new CachedTimestampClock(Clock.systemDefaultZone());
+
+    // Immutable, so one volatile read gives a consistent view
+    private static final class Tick {
+        final long millis;
+        final long second;
+        final char[] template;   // "[yyyy-MM-dd HH:mm:ss.000]: " for `second`
+        final String prefix;
+
+        Tick(long millis, long second, char[] template, String prefix) {
+            this.millis = millis;
+            this.second = second;
+            this.template = template;
+            this.prefix = prefix;
+        }
+    }
+
+    private static final int MILLIS_OFFSET = "[yyyy-MM-dd HH:mm:ss.".length();
+
+    private final Clock clock;
+    private volatile Tick current;
+
+    public CachedTimestampClock(Clock clock) {
+        this.clock = clock;
+        this.current = new Tick(Long.MIN_VALUE, Long.MIN_VALUE, null, null);
+    }
+
+    public static CachedTimestampClock system() {
+        return SYSTEM;
+    }
+
+    public String prefix() {
+        long millis = clock.millis();
+        Tick tick = current;
+        if (tick.millis == millis) {
+            return tick.prefix;
+        }
+
+        long second = Math.floorDiv(millis, 1000);
+        char[] template = tick.template;
+        if (tick.second != second) {
+            String formatted = "[" + SECONDS.format(Instant.ofEpochSecond(second).atZone(clock.getZone())) + ".000]: ";
+            template = formatted.toCharArray();
+        }
+
+        char[] chars = template.clone();
+        int ms = Math.floorMod(millis, 1000);
+        chars[MILLIS_OFFSET] = (char) ('0' + ms / 100);
+        chars[MILLIS_OFFSET + 1] = (char) ('0' + ms / 10 % 10);
+        chars[MILLIS_OFFSET + 2] = (char) ('0' + ms % 10);
+
+        // Racing threads may both build a Tick for this millisecond; either one is correct
+        Tick next = new Tick(millis, second, template, new String(chars));
+        current = next;
+        return next.prefix;
     }
 
 }
@@ -60,15 +148,23 @@ abstract class INotificationDecorator implements INotification {
 // Decorator Pattern: Concrete Decorator
 // Adds timestamp functionality to any notification
 // Enhances the notification by prepending a timestamp to the content
+// The timestamp is taken when the notification is decorated.
 class TimeStampNotificationDecorator extends INotificationDecorator {
 
+    private final String timestamp;
+
     public TimeStampNotificationDecorator(INotification wrapped) {
+        this(wrapped, CachedTimestampClock.system());
+    }
+
+    public TimeStampNotificationDecorator(INotification wrapped, CachedTimestampClock clock) {
         super(wrapped);
+        this.timestamp = clock.prefix();
     }
 
     @Override
-    public String getContent() {
-        return "[2026-01-13 00:00:000]: " + wrapped.getContent();
+    protected String getPrefix() {
+        return timestamp;
     }
 
 }
@@ -85,9 +181,71 @@ class SignatureNotificationDecorator extends INotificationDecorator {
         this.signature = signature;
     }
 
+    @Override
+    protected String getSuffix() {
+        return "\n -- " + signature;
+    }
+
+}
+
+// Decorator Pattern: Flattened Component
+// Immutable, pre-rendered form of a notification and its decorator chain.
+// The chain is walked once: prefixes are collected outside-in, suffixes inside-out, and the
+// content is built in a single pass. After that every reader shares the same String, and
+// channels that want bytes share one UTF-8 encoding.
+final class RenderedNotification implements INotification {
+
+    private final String content;
+    private byte[] utf8;  // encoded on first use; racing threads produce equal arrays
+
+    private RenderedNotification(String content) {
+        this.content = content;
+    }
+
+    public static RenderedNotification of(INotification notification) {
+        if (notification instanceof RenderedNotification) {
+            return (RenderedNotification) notification;
+        }
+
+        List<String> prefixes = new ArrayList<>();
+        List<String> suffixes = new ArrayList<>();
+        INotification core = notification;
+        while (core instanceof INotificationDecorator) {
+            INotificationDecorator decorator = (INotificationDecorator) core;
+            prefixes.add(decorator.getPrefix());
+            suffixes.add(decorator.getSuffix());
+            core = decorator.wrapped;
+        }
+
+        String body = core.getContent();
+        int length = body.length();
+        for (int i = 0; i < prefixes.size(); i++) {
+            length += prefixes.get(i).length() + suffixes.get(i).length();
+        }
+
+        StringBuilder rendered = new StringBuilder(length);
+        for (String prefix : prefixes) {
+            rendered.append(prefix);
+        }
+        rendered.append(body);
+        for (int i = suffixes.size() - 1; i >= 0; i--) {
+            rendered.append(suffixes.get(i));
+        }
+        return new RenderedNotification(rendered.toString());
+    }
+
     @Override
     public String getContent() {
-        return wrapped.getContent() + "\n -- " + signature;
+        return content;
+    }
+
+    public byte[] getUtf8() {
+        byte[] bytes = utf8;
+        if (bytes == null) {
+            bytes = content.getBytes(StandardCharsets.UTF_8);
+            utf8 = bytes;
+        }
+        return bytes;
     }
 
 }
@@ -110,6 +268,11 @@ interface ISubject {
 // to receive notifications from the subject
 interface IObserver {
     void update(String message);
+
+    // Delivery with priority, deadline and outbox details; most observers just take the message
+    default void update(NotificationDelivery delivery) {
+        update(delivery.getMessage());
+    }
 }
 
 // Strategy Pattern: Strategy Interface
@@ -117,6 +280,13 @@ interface IObserver {
 // Allows different notification methods to be used interchangeably
 interface INotificationStrategy {
     void sendNotification(String msg);
+
+    // Completes once the message has actually gone out; strategies that only queue it
+    // (BatchingNotificationStrategy) complete it later
+    default CompletableFuture<Void> sendNotificationAsync(String msg) {
+        sendNotification(msg);
+        return CompletableFuture.completedFuture(null);
+    }
 }
 
 // Strategy Pattern: Concrete Strategy
@@ -187,26 +357,134 @@ class Logger implements IObserver {
 // Implements notification engine that uses multiple strategies
 // Acts as an observer that receives notifications and forwards them
 // to various notification strategies for delivery
+//
+// Each strategy runs behind its own ChannelWorker (Bulkhead Pattern), so update() only
+// enqueues: a slow email channel neither delays SMS / popup delivery nor blocks the caller.
 class NotificationEngine implements IObserver {
 
+    private static final int DEFAULT_CHANNEL_THREADS = 2;
+    private static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    private static final long DEFAULT_TIMEOUT_MILLIS = 5_000;
+
+    // A channel and the id its outbox acknowledgements are recorded under
+    private static final class Channel {
+        final int id;
+        final ChannelWorker worker;
+
+        Channel(int id, ChannelWorker worker) {
+            this.id = id;
+            this.worker = worker;
+        }
+    }
+
     List<INotificationStrategy> strategies;
+    private List<Channel> channels;
+    private int nextChannelId;   // ids are never reused, so acks stay with the channel that made them
+    private volatile NotificationOutbox outbox;
 
     public NotificationEngine() {
-        strategies = new ArrayList<>();
+        // Dispatcher threads iterate while strategies may be added or removed
+        strategies = new CopyOnWriteArrayList<>();
+        channels = new CopyOnWriteArrayList<>();
     }
 
     public void addNotificationStrategy(INotificationStrategy strategy) {
+        addNotificationStrategy(strategy, DEFAULT_CHANNEL_THREADS, DEFAULT_QUEUE_CAPACITY, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public synchronized void addNotificationStrategy(INotificationStrategy strategy, int threads, int queueCapacity, long timeoutMillis) {
+        if (outbox != null && nextChannelId >= outbox.getChannelCount()) {
+            throw new IllegalStateException("Outbox tracks only " + outbox.getChannelCount() + " channels");
+        }
         strategies.add(strategy);
+        channels.add(new Channel(nextChannelId++, new ChannelWorker(strategy, threads, queueCapacity, timeoutMillis)));
     }
 
-    public void removeStrategy(INotificationStrategy strategy) {
+    public synchronized void removeStrategy(INotificationStrategy strategy) {
         strategies.removeIf(currentStrategy -> currentStrategy.equals(strategy));
+        for (Channel channel : channels) {
+            if (channel.worker.getStrategy().equals(strategy)) {
+                channels.remove(channel);
+                try {
+                    // Sends already queued on the channel still go out
+                    channel.worker.shutdown(DEFAULT_TIMEOUT_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
     }
 
     @Override
     public void update(String message) {
-        for (INotificationStrategy strategy : strategies) {
-            strategy.sendNotification(message);
+        dispatch(message);
+    }
+
+    @Override
+    public void update(NotificationDelivery delivery) {
+        dispatch(delivery);
+    }
+
+    // Acknowledges each channel's successful delivery to the outbox, so only what is still
+    // undelivered is replayed after a restart. Channel i is the i-th strategy added, counting
+    // removed ones: a removed channel's id is not given to the next strategy.
+    public synchronized void setOutbox(NotificationOutbox outbox) {
+        if (outbox.getChannelCount() != nextChannelId) {
+            throw new IllegalStateException("Outbox tracks " + outbox.getChannelCount() + " channels, engine has " + nextChannelId);
+        }
+        this.outbox = outbox;
+    }
+
+    public List<CompletableFuture<Void>> dispatch(String message) {
+        return dispatch(NotificationDelivery.of(new SimpleNotification(message)));
+    }
+
+    // Hands the message to every channel; one future per channel, in strategy order.
+    // Channels that already delivered it (before a restart) are skipped.
+    public List<CompletableFuture<Void>> dispatch(NotificationDelivery delivery) {
+        return dispatch(delivery, new ArrayList<>(channels.size()));
+    }
+
+    // As dispatch(delivery), and also adds to `taken` one future per channel that completes as
+    // soon as the channel's strategy has taken the message - for a batching channel that is when
+    // the message is queued in the batcher, well before the delivery future completes
+    public List<CompletableFuture<Void>> dispatch(NotificationDelivery delivery, List<CompletableFuture<Void>> taken) {
+        String message = delivery.getMessage();
+        NotificationOutbox ackTo = delivery.getOutboxId() >= 0 ? outbox : null;
+        List<CompletableFuture<Void>> deliveries = new ArrayList<>(channels.size());
+        for (Channel channel : channels) {
+            if (delivery.isAcknowledged(channel.id)) {
+                deliveries.add(CompletableFuture.completedFuture(null));
+                taken.add(CompletableFuture.completedFuture(null));
+                continue;
+            }
+            CompletableFuture<Void> handedOff = new CompletableFuture<>();
+            taken.add(handedOff);
+            CompletableFuture<Void> sent = channel.worker.deliver(message, handedOff);
+            sent.whenComplete((ignored, error) -> {
+                if (error != null) {
+                    System.out.println("[CHANNEL ERROR] " + channel.worker.getStrategy().getClass().getSimpleName() + ": " + error);
+                } else if (ackTo != null) {
+                    ackTo.acknowledge(delivery.getOutboxId(), channel.id);
+                }
+            });
+            deliveries.add(sent);
+        }
+        return deliveries;
+    }
+
+    public void displayMetrics() {
+        System.out.println("\n=== Notification Channels ===");
+        for (Channel channel : channels) {
+            channel.worker.display();
+        }
+        System.out.println("=============================");
+    }
+
+    // Lets every channel finish its queued sends, waiting at most waitMillis per channel
+    public void shutdown(long waitMillis) throws InterruptedException {
+        for (Channel channel : channels) {
+            channel.worker.shutdown(waitMillis);
         }
     }
 
@@ -217,16 +495,23 @@ class NotificationEngine implements IObserver {
 // Holds the current notification and broadcasts it to all observers
 class NotificationObservable implements ISubject {
 
-    List<IObserver> observers;
+    ObserverRegistry<IObserver> observers;
     INotification currentNotification;
 
     public NotificationObservable() {
-        observers = new ArrayList<>();
+        // Dispatcher threads publish while observers may subscribe or unsubscribe
+        observers = new ObserverRegistry<>();
     }
 
     @Override
     public void subscribe(IObserver observer) {
-        observers.add(observer);
+        observers.subscribe(observer);
+    }
+
+    // Receives only notifications published on `topic` (NotificationService uses the recipient).
+    // Keep the returned handle to unsubscribe in O(1).
+    public ObserverRegistry<IObserver>.Subscription subscribe(String topic, IObserver observer) {
+        return observers.subscribe(topic, observer);
     }
 
     public void addObserver(IObserver observer) {
@@ -235,14 +520,13 @@ class NotificationObservable implements ISubject {
 
     @Override
     public void unsubscribe(IObserver observer) {
-        observers.removeIf(currentobserver -> currentobserver.equals(observer));
+        observers.unsubscribe(observer);
     }
 
     @Override
     public void notifyObservers() {
-        for (IObserver observer : observers) {
-            observer.update(currentNotification.getContent());
-        }
+        String content = currentNotification.getContent();
+        observers.forEach(null, observer -> observer.update(content));
     }
 
     public void setNotification(INotification notification) {
@@ -250,6 +534,21 @@ class NotificationObservable implements ISubject {
         notifyObservers();
     }
 
+    // Delivers one notification without going through the shared currentNotification field,
+    // so several dispatcher threads can publish at the same time
+    public void publish(INotification notification) {
+        publish(null, notification);
+    }
+
+    // Delivers to the observers of `topic` and to those subscribed to every topic
+    public void publish(String topic, INotification notification) {
+        publish(topic, NotificationDelivery.of(notification));
+    }
+
+    public void publish(String topic, NotificationDelivery delivery) {
+        observers.forEach(topic, observer -> observer.update(delivery));
+    }
+
     public INotification getNotification() {
         return currentNotification;
     }
@@ -264,29 +563,187 @@ class NotificationObservable implements ISubject {
 // Ensures only one instance of NotificationService exists
 // Provides global access point to the notification service
 // Coordinates between the observable and notification sending
+//
+// The instance is created by the class loader (holder idiom), so it is safe to get from
+// any thread. Sending never blocks: a notification goes into the shard owning its
+// recipient, and that shard's dispatcher thread delivers it. Notifications for one
+// recipient are delivered in the order they were sent.
+//
+// With an outbox, a notification is only handed to a shard once it is durable, and what
+// was accepted but not delivered on every channel before a restart is delivered again.
 class NotificationService {
+    public static final String BROADCAST = "*";
+
     private NotificationObservable observable;
-    private static NotificationService instance;
-    private List<INotification> notifications = new ArrayList<>();
+    private NotificationShard[] shards;
+    private NotificationHistory history;
+    private NotificationOutbox outbox;
+    private NotificationTemplateRegistry templates;
+    // With an outbox: the hand-off to a shard of the newest durable send. Offers run in append
+    // order, so once this one is done every earlier send is queued on its shard.
+    private final Object offerLock = new Object();
+    private CompletableFuture<Void> lastOffered = CompletableFuture.completedFuture(null);
 
     private NotificationService() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    NotificationService(int shardCount) {
+        this(shardCount, null);
+    }
+
+    // Engines acknowledging to the outbox (setOutbox) should be subscribed before
+    // replayUndelivered(); the caller closes the outbox after shutdown().
+    NotificationService(int shardCount, NotificationOutbox outbox) {
+        this(shardCount, outbox, Paths.get(System.getProperty("java.io.tmpdir"), "notification-history"));
+    }
+
+    // History spills under historyRoot; shutdown() deletes what this service spilled there
+    NotificationService(int shardCount, NotificationOutbox outbox, Path historyRoot) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Need at least 1 shard");
+        }
         observable = new NotificationObservable();
+        history = new NotificationHistory(NotificationRetentionPolicy.defaults(), historyRoot);
+        shards = new NotificationShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new NotificationShard(i, observable, history);
+        }
+        this.outbox = outbox;
+        templates = new NotificationTemplateRegistry();
+    }
+
+    private static class Holder {
+        static final NotificationService INSTANCE = new NotificationService();
     }
 
     public static NotificationService getInstance() {
-        if (instance == null) {
-            instance = new NotificationService();
-        }
-        return instance;
+        return Holder.INSTANCE;
     }
 
     public NotificationObservable getObservable() {
         return observable;
     }
 
+    public NotificationHistory getHistory() {
+        return history;
+    }
+
+    // Templates used by TemplateNotification; the outbox replays templated entries from here
+    public NotificationTemplateRegistry getTemplates() {
+        return templates;
+    }
+
     public void sendNotification(INotification notification) {
-        notifications.add(notification);
-        observable.setNotification(notification);
+        sendNotification(BROADCAST, notification);
+    }
+
+    public void sendNotification(String recipient, INotification notification) {
+        sendNotification(recipient, notification, NotificationPriority.NORMAL);
+    }
+
+    // Deadline is the priority lane's default budget from now
+    public void sendNotification(String recipient, INotification notification, NotificationPriority priority) {
+        sendNotification(recipient, notification, priority, priority.getDeadlineBudgetMillis());
+    }
+
+    // Priority and deadline only matter to a NotificationScheduler observer; others ignore them
+    public void sendNotification(String recipient, INotification notification, NotificationPriority priority, long deadlineMillis) {
+        // Render the decorator chain once; history and every observer share the result
+        RenderedNotification rendered = RenderedNotification.of(notification);
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+        NotificationShard shard = shards[shardFor(recipient)];
+        if (outbox == null) {
+            shard.offer(new NotificationEnvelope(recipient, new NotificationDelivery(rendered, priority, deadlineNanos,
+                    NotificationDelivery.NO_OUTBOX_ID, 0)));
+            return;
+        }
+        synchronized (offerLock) {
+            // An undecorated template is stored as (template id, arguments) rather than rendered text
+            CompletableFuture<Long> durable = notification instanceof TemplateNotification
+                    ? outbox.append(recipient, (TemplateNotification) notification, priority)
+                    : outbox.append(recipient, rendered.getContent(), priority);
+            // Completed by the outbox committer in append order, so per-recipient order holds
+            lastOffered = durable.thenAccept(id -> shard.offer(new NotificationEnvelope(
+                    recipient, new NotificationDelivery(rendered, priority, deadlineNanos, id, 0))))
+                    .exceptionally(error -> {
+                        System.out.println("[OUTBOX ERROR] Not sent to " + recipient + ": " + error);
+                        return null;
+                    });
+        }
+    }
+
+    // Blocks until every send so far is durable and queued on its shard
+    private void awaitOffered() {
+        CompletableFuture<Void> marker;
+        synchronized (offerLock) {
+            marker = lastOffered;
+        }
+        marker.join();
+    }
+
+    // Sends again what the outbox held undelivered at startup, skipping channels that already
+    // delivered it. Call once, after the observers are subscribed and the templates registered.
+    // An entry whose template is not registered is skipped and stays pending in the outbox,
+    // so it is replayed on a later start. Returns how many entries were replayed.
+    public int replayUndelivered() {
+        if (outbox == null) {
+            return 0;
+        }
+        int replayed = 0;
+        for (OutboxEntry entry : outbox.getRecoveredEntries()) {
+            INotification notification;
+            try {
+                notification = entry.toNotification(templates);
+            } catch (IllegalArgumentException e) {
+                System.out.println("[OUTBOX ERROR] Not replayed to " + entry.getRecipient() + " (entry " + entry.getId() + "): " + e.getMessage());
+                continue;
+            }
+            NotificationDelivery delivery = new NotificationDelivery(notification,
+                    entry.getPriority(), entry.getPriority().deadlineFromNow(), entry.getId(), entry.getAcknowledgedChannels());
+            shards[shardFor(entry.getRecipient())].offer(new NotificationEnvelope(entry.getRecipient(), delivery));
+            replayed++;
+        }
+        return replayed;
+    }
+
+    private int shardFor(String recipient) {
+        int h = recipient.hashCode();
+        h ^= (h >>> 16);  // spread the high bits, as HashMap does
+        return Math.floorMod(h, shards.length);
+    }
+
+    // Waits until every notification sent so far has been delivered
+    public void flush() {
+        if (outbox != null) {
+            awaitOffered();
+        }
+        for (NotificationShard shard : shards) {
+            shard.awaitDrained();
+        }
+    }
+
+    // Delivers whatever is still queued, stops the dispatcher threads and deletes the history spill files
+    public void shutdown() throws InterruptedException {
+        if (outbox != null) {
+            awaitOffered();
+        }
+        for (NotificationShard shard : shards) {
+            shard.shutdown();
+        }
+        try {
+            history.close();
+        } catch (IOException e) {
+            System.out.println("[HISTORY] Could not delete spill files: " + e.getMessage());
+        }
+    }
+
+    public int getQueueDepth() {
+        int depth = 0;
+        for (NotificationShard shard : shards) {
+            depth += shard.getQueueDepth();
+        }
+        return depth;
     }
 }
 
@@ -312,7 +769,7 @@ public class Main {
      * Main method - Entry point for the notification system demonstration
      * Shows how all patterns work together to create a flexible notification system
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws InterruptedException {
 
         // Create NotificationService using Singleton pattern
         NotificationService notificationService = NotificationService.getInstance();
@@ -328,13 +785,23 @@ public class Main {
         NotificationEngine notificationEngine = new NotificationEngine();
 
         // Configure notification strategies using Strategy pattern
-        notificationEngine.addNotificationStrategy(new EmailNotificationStrategy("random.person@gmail.com"));
-        notificationEngine.addNotificationStrategy(new SMSNotificationStrategy("+91 9876543210"));
+        // Email and SMS go through batchers, which send one provider request per window
+        NotificationBatcher emailBatcher = new NotificationBatcher(
+                new StrategyNotificationProvider(EmailNotificationStrategy::new), 200, 100);
+        NotificationBatcher smsBatcher = new NotificationBatcher(
+                new StrategyNotificationProvider(SMSNotificationStrategy::new), 200, 100);
+        notificationEngine.addNotificationStrategy(emailBatcher.forRecipient("random.person@gmail.com"));
+        // SMS is rate limited and deduplicated per phone number
+        NotificationGuard notificationGuard = new NotificationGuard(NotificationGuardPolicy.defaults());
+        notificationEngine.addNotificationStrategy(new GuardedNotificationStrategy(
+                smsBatcher.forRecipient("+91 9876543210"), "SMS", "+91 9876543210", notificationGuard));
         notificationEngine.addNotificationStrategy(new PopupNotificationStrategy());
 
         // Attach observers to the observable (Observer pattern)
         notificationObservable.addObserver(logger);
-        notificationObservable.addObserver(notificationEngine);
+        // The engine is fed through the scheduler, so urgent notifications overtake bulk ones
+        NotificationScheduler notificationScheduler = new NotificationScheduler(notificationEngine, 64);
+        notificationObservable.addObserver(notificationScheduler);
 
         // Create a notification and enhance it using Decorator pattern
         INotification notification = new SimpleNotification("Your order has been shipped!");
@@ -343,6 +810,13 @@ public class Main {
 
         // Send notification which triggers all observers
         notificationService.sendNotification(notification);
+
+        // Deliver anything still queued before the JVM exits
+        notificationService.shutdown();
+        notificationScheduler.shutdown();
+        notificationEngine.shutdown(5_000);
+        emailBatcher.close();
+        smsBatcher.close();
     }
 
 }
@@ -0,0 +1,320 @@
+package notification_engine;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// Gateway Pattern: Provider Interface
+// The outside delivery provider (mail relay, SMS gateway). Every call is one billed request.
+interface INotificationProvider {
+
+    // The same message to several recipients in one request
+    void sendMultiRecipient(List<String> recipients, String msg);
+
+    // Several messages to one recipient in one request
+    void sendDigest(String recipient, List<String> msgs);
+
+}
+
+// Gateway Pattern: Stub Provider
+// Local stand-in for a real provider: records every request instead of sending it
+class StubNotificationProvider implements INotificationProvider {
+
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+    private final LongAdder requestCount = new LongAdder();
+    private final LongAdder deliveredMessages = new LongAdder();
+
+    @Override
+    public void sendMultiRecipient(List<String> recipients, String msg) {
+        requestCount.increment();
+        deliveredMessages.add(recipients.size());
+        requests.add("MULTI " + recipients + ": " + msg);
+    }
+
+    @Override
+    public void sendDigest(String recipient, List<String> msgs) {
+        requestCount.increment();
+        deliveredMessages.add(msgs.size());
+        requests.add("DIGEST " + recipient + ": " + msgs);
+    }
+
+    public List<String> getRequests() {
+        synchronized (requests) {
+            return new ArrayList<>(requests);
+        }
+    }
+
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    public long getDeliveredMessages() {
+        return deliveredMessages.sum();
+    }
+
+}
+
+// Adapter Pattern: Strategy Adapter
+// Exposes a per-address channel strategy (EmailNotificationStrategy::new,
+// SMSNotificationStrategy::new) as a provider. Each provider request is one send: a
+// multi-recipient request goes to the comma-separated recipients, and a digest goes to its
+// recipient as one message with one line per notification.
+class StrategyNotificationProvider implements INotificationProvider {
+
+    private final Function<String, INotificationStrategy> strategyForAddress;
+
+    public StrategyNotificationProvider(Function<String, INotificationStrategy> strategyForAddress) {
+        this.strategyForAddress = strategyForAddress;
+    }
+
+    @Override
+    public void sendMultiRecipient(List<String> recipients, String msg) {
+        strategyForAddress.apply(String.join(", ", recipients)).sendNotification(msg);
+    }
+
+    @Override
+    public void sendDigest(String recipient, List<String> msgs) {
+        strategyForAddress.apply(recipient).sendNotification(msgs.size() == 1 ? msgs.get(0) : String.join("\n", msgs));
+    }
+
+}
+
+// Batching layer in front of a provider.
+// Messages are collected per recipient for up to windowMillis or maxBatchSize messages,
+// whichever comes first. A repeated message to the same recipient inside one window is
+// coalesced. On flush, a message shared by several recipients goes out as one
+// multi-recipient request, and whatever is left for a recipient goes out as one digest.
+// add() returns a future that completes when the request carrying the message returns, or
+// fails with it, so a channel is only counted as delivered once the provider has the message.
+// Each recipient receives its messages in the order they were added: batches are sent one
+// at a time, and a recipient's earlier messages go out before a multi-recipient request
+// that includes it.
+class NotificationBatcher implements AutoCloseable {
+
+    private final INotificationProvider provider;
+    private final long windowMillis;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService timer;
+    private final Object sendLock = new Object();   // taken before `this`, held while a batch is sent
+
+    private Map<String, Map<String, CompletableFuture<Void>>> pending = new LinkedHashMap<>();
+    private int pendingMessages;
+    private ScheduledFuture<?> windowFlush;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failedRequests = new LongAdder();
+
+    public NotificationBatcher(INotificationProvider provider, long windowMillis, int maxBatchSize) {
+        if (windowMillis < 1 || maxBatchSize < 1) {
+            throw new IllegalArgumentException("Batch window and size must be positive");
+        }
+        this.provider = provider;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Strategy that feeds one recipient's messages into this batcher
+    public INotificationStrategy forRecipient(String recipient) {
+        return new BatchingNotificationStrategy(this, recipient);
+    }
+
+    public CompletableFuture<Void> add(String recipient, String msg) {
+        CompletableFuture<Void> sent;
+        boolean full = false;
+        synchronized (this) {
+            accepted.increment();
+            Map<String, CompletableFuture<Void>> queued = pending.computeIfAbsent(recipient, r -> new LinkedHashMap<>());
+            sent = queued.get(msg);
+            if (sent != null) {
+                coalesced.increment();
+                return sent;
+            }
+            sent = new CompletableFuture<>();
+            queued.put(msg, sent);
+            pendingMessages++;
+            if (pendingMessages >= maxBatchSize) {
+                full = true;
+            } else if (windowFlush == null) {
+                windowFlush = timer.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full) {
+            flush();
+        }
+        return sent;
+    }
+
+    public void flush() {
+        synchronized (sendLock) {
+            Map<String, Map<String, CompletableFuture<Void>>> batch;
+            synchronized (this) {
+                batch = takePending();
+            }
+            send(batch);
+        }
+    }
+
+    private Map<String, Map<String, CompletableFuture<Void>>> takePending() {
+        Map<String, Map<String, CompletableFuture<Void>>> batch = pending;
+        pending = new LinkedHashMap<>();
+        pendingMessages = 0;
+        if (windowFlush != null) {
+            windowFlush.cancel(false);
+            windowFlush = null;
+        }
+        return batch;
+    }
+
+    private void send(Map<String, Map<String, CompletableFuture<Void>>> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        // Invert to message -> recipients, to find messages worth one multi-recipient request
+        Map<String, List<String>> recipientsByMessage = new LinkedHashMap<>();
+        for (Map.Entry<String, Map<String, CompletableFuture<Void>>> entry : batch.entrySet()) {
+            for (String msg : entry.getValue().keySet()) {
+                recipientsByMessage.computeIfAbsent(msg, m -> new ArrayList<>()).add(entry.getKey());
+            }
+        }
+        for (Map.Entry<String, List<String>> entry : recipientsByMessage.entrySet()) {
+            String msg = entry.getKey();
+            List<String> recipients = new ArrayList<>();
+            for (String recipient : entry.getValue()) {
+                // Already sent in an earlier recipient's digest to keep that recipient in order
+                if (batch.get(recipient).containsKey(msg)) {
+                    recipients.add(recipient);
+                }
+            }
+            if (recipients.size() < 2) {
+                continue;
+            }
+            for (String recipient : recipients) {
+                sendDigestBefore(recipient, batch.get(recipient), msg);
+            }
+            List<CompletableFuture<Void>> sent = new ArrayList<>(recipients.size());
+            for (String recipient : recipients) {
+                sent.add(batch.get(recipient).remove(msg));
+            }
+            request(() -> provider.sendMultiRecipient(recipients, msg), sent);
+        }
+
+        for (Map.Entry<String, Map<String, CompletableFuture<Void>>> entry : batch.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                List<String> msgs = new ArrayList<>(entry.getValue().keySet());
+                request(() -> provider.sendDigest(entry.getKey(), msgs), entry.getValue().values());
+            }
+        }
+    }
+
+    // Sends, as one digest, the recipient's messages queued before msg, and removes them
+    private void sendDigestBefore(String recipient, Map<String, CompletableFuture<Void>> queued, String msg) {
+        List<String> earlier = new ArrayList<>();
+        List<CompletableFuture<Void>> sent = new ArrayList<>();
+        for (Map.Entry<String, CompletableFuture<Void>> entry : queued.entrySet()) {
+            if (entry.getKey().equals(msg)) {
+                break;
+            }
+            earlier.add(entry.getKey());
+            sent.add(entry.getValue());
+        }
+        if (!earlier.isEmpty()) {
+            queued.keySet().removeAll(earlier);
+            request(() -> provider.sendDigest(recipient, earlier), sent);
+        }
+    }
+
+    // Makes one provider call and completes the futures of the messages it carried
+    private void request(Runnable call, Collection<CompletableFuture<Void>> sent) {
+        requests.increment();
+        try {
+            call.run();
+        } catch (RuntimeException e) {
+            failedRequests.increment();
+            System.out.println("[BATCH ERROR] " + e.getMessage());
+            for (CompletableFuture<Void> future : sent) {
+                future.completeExceptionally(e);
+            }
+            return;
+        }
+        for (CompletableFuture<Void> future : sent) {
+            future.complete(null);
+        }
+    }
+
+    public long getAcceptedMessages() {
+        return accepted.sum();
+    }
+
+    public long getCoalescedMessages() {
+        return coalesced.sum();
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getFailedRequests() {
+        return failedRequests.sum();
+    }
+
+    public void display() {
+        long sent = getRequests();
+        System.out.println("\n=== Notification Batcher ===");
+        System.out.println("Messages accepted: " + getAcceptedMessages() + " (coalesced duplicates: " + getCoalescedMessages() + ")");
+        System.out.println("Provider requests: " + sent + " (failed: " + getFailedRequests() + ")");
+        System.out.printf("Messages per request: %.1f%n", sent == 0 ? 0 : (double) getAcceptedMessages() / sent);
+        System.out.println("============================");
+    }
+
+    // Sends whatever is pending and stops the window timer
+    @Override
+    public void close() {
+        flush();
+        timer.shutdown();
+    }
+
+}
+
+// Strategy Pattern: Concrete Strategy
+// Stands in for EmailNotificationStrategy / SMSNotificationStrategy when sends should be
+// batched: each call only hands the message to the batcher for this recipient, and the
+// async send completes when the batch carrying it has been sent.
+class BatchingNotificationStrategy implements INotificationStrategy {
+
+    private final NotificationBatcher batcher;
+    private final String recipient;
+
+    public BatchingNotificationStrategy(NotificationBatcher batcher, String recipient) {
+        this.batcher = batcher;
+        this.recipient = recipient;
+    }
+
+    @Override
+    public void sendNotification(String msg) {
+        batcher.add(recipient, msg);
+    }
+
+    @Override
+    public CompletableFuture<Void> sendNotificationAsync(String msg) {
+        return batcher.add(recipient, msg);
+    }
+
+}
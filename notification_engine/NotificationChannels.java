@@ -0,0 +1,175 @@
+package notification_engine;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Metrics for one delivery channel.
+// Updated from the channel's worker threads and from producers, read by anyone.
+class ChannelMetrics {
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    public void recordDelivered(long latencyNanos) {
+        delivered.increment();
+        totalLatencyNanos.add(latencyNanos);
+        maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+    }
+
+    public void recordFailed() {
+        failed.increment();
+    }
+
+    public void recordTimedOut() {
+        timedOut.increment();
+    }
+
+    public void recordRejected() {
+        rejected.increment();
+    }
+
+    public long getDelivered() {
+        return delivered.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getTimedOut() {
+        return timedOut.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public double getMeanLatencyMicros() {
+        long count = delivered.sum();
+        return count == 0 ? 0 : totalLatencyNanos.sum() / 1000.0 / count;
+    }
+
+    public double getMaxLatencyMicros() {
+        return maxLatencyNanos.get() / 1000.0;
+    }
+
+}
+
+// Bulkhead Pattern: Channel Worker
+// Runs one INotificationStrategy on its own bounded pool and queue, so a slow or stalled
+// channel only backs up its own queue. Every delivery gets a future that completes when the
+// strategy's send completes (for a batching strategy, when its batch reaches the provider),
+// fails when it throws, is rejected when the queue is full, and times out
+// (cancelling the send) when it takes longer than the channel's timeout.
+class ChannelWorker {
+
+    private final INotificationStrategy strategy;
+    private final ThreadPoolExecutor executor;
+    private final ChannelMetrics metrics;
+    private final long timeoutMillis;
+
+    public ChannelWorker(INotificationStrategy strategy, int threads, int queueCapacity, long timeoutMillis) {
+        if (threads < 1 || queueCapacity < 1 || timeoutMillis < 1) {
+            throw new IllegalArgumentException("Channel threads, queue capacity and timeout must be positive");
+        }
+        this.strategy = strategy;
+        this.metrics = new ChannelMetrics();
+        this.timeoutMillis = timeoutMillis;
+
+        String name = strategy.getClass().getSimpleName();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, name + "-" + threadIndex.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public CompletableFuture<Void> deliver(String message) {
+        return deliver(message, new CompletableFuture<>());
+    }
+
+    // `taken` completes once the strategy call has returned - the message has left this
+    // channel's queue - or once the delivery ends without it (rejected, failed, timed out)
+    public CompletableFuture<Void> deliver(String message, CompletableFuture<Void> taken) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        result.whenComplete((ignored, error) -> taken.complete(null));
+        long enqueuedAt = System.nanoTime();
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                if (result.isDone()) {
+                    return;  // timed out while still queued
+                }
+                try {
+                    strategy.sendNotificationAsync(message).whenComplete((ignored, error) -> {
+                        if (error == null) {
+                            if (result.complete(null)) {
+                                metrics.recordDelivered(System.nanoTime() - enqueuedAt);
+                            }
+                        } else if (result.completeExceptionally(error)) {
+                            metrics.recordFailed();
+                        }
+                    });
+                    taken.complete(null);
+                } catch (RuntimeException e) {
+                    if (result.completeExceptionally(e)) {
+                        metrics.recordFailed();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            metrics.recordRejected();
+            result.completeExceptionally(new RejectedExecutionException(
+                    strategy.getClass().getSimpleName() + " queue is full (" + executor.getQueue().size() + " pending)"));
+            return result;
+        }
+
+        result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS).whenComplete((ignored, error) -> {
+            if (error instanceof TimeoutException) {
+                metrics.recordTimedOut();
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    public INotificationStrategy getStrategy() {
+        return strategy;
+    }
+
+    public ChannelMetrics getMetrics() {
+        return metrics;
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public void shutdown(long waitMillis) throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(waitMillis, TimeUnit.MILLISECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    public void display() {
+        System.out.printf("%-28s queue %5d, delivered %8d, failed %5d, timed out %5d, rejected %5d, latency mean %.1f us / max %.1f us%n",
+                strategy.getClass().getSimpleName(), getQueueDepth(), metrics.getDelivered(), metrics.getFailed(),
+                metrics.getTimedOut(), metrics.getRejected(), metrics.getMeanLatencyMicros(), metrics.getMaxLatencyMicros());
+    }
+
+}
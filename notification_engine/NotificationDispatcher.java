@@ -0,0 +1,199 @@
+package notification_engine;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Value Object
+// What observers receive for one notification: the rendered notification, how urgent it is,
+// and - when NotificationService runs with an outbox - its outbox id and the channels that
+// already delivered it before a restart.
+class NotificationDelivery {
+
+    public static final long NO_OUTBOX_ID = -1;
+
+    private final RenderedNotification notification;
+    private final NotificationPriority priority;
+    private final long deadlineNanos;
+    private final long outboxId;
+    private final long acknowledgedChannels;   // bit i set: channel i has delivered it
+
+    public NotificationDelivery(INotification notification, NotificationPriority priority, long deadlineNanos,
+            long outboxId, long acknowledgedChannels) {
+        this.notification = RenderedNotification.of(notification);
+        this.priority = priority;
+        this.deadlineNanos = deadlineNanos;
+        this.outboxId = outboxId;
+        this.acknowledgedChannels = acknowledgedChannels;
+    }
+
+    public static NotificationDelivery of(INotification notification) {
+        return new NotificationDelivery(notification, NotificationPriority.NORMAL,
+                NotificationPriority.NORMAL.deadlineFromNow(), NO_OUTBOX_ID, 0);
+    }
+
+    public String getMessage() {
+        return notification.getContent();
+    }
+
+    public INotification getNotification() {
+        return notification;
+    }
+
+    public NotificationPriority getPriority() {
+        return priority;
+    }
+
+    public long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    public long getOutboxId() {
+        return outboxId;
+    }
+
+    public boolean isAcknowledged(int channel) {
+        return (acknowledgedChannels & (1L << channel)) != 0;
+    }
+
+}
+
+// Value Object
+// A delivery together with the recipient it is addressed to.
+// The recipient decides the shard, so all notifications for one recipient stay in order.
+class NotificationEnvelope {
+
+    private final String recipient;
+    private final NotificationDelivery delivery;
+
+    public NotificationEnvelope(String recipient, NotificationDelivery delivery) {
+        this.recipient = recipient;
+        this.delivery = delivery;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public NotificationDelivery getDelivery() {
+        return delivery;
+    }
+
+}
+
+// Producer-Consumer Pattern: Shard
+// One partition of the NotificationService pipeline.
+// Any number of producer threads offer into a lock-free queue; a single dedicated
+// dispatcher thread drains it, records it in the history and publishes it to the
+// observable, so producers never touch the history lock or its spill files. The dispatcher parks
+// when the queue is empty and producers only unpark it when it is actually waiting.
+// Callers of awaitDrained() wait on a monitor that the dispatcher notifies only once it
+// reaches the lowest delivery count someone is waiting for.
+class NotificationShard implements Runnable {
+
+    private final ConcurrentLinkedQueue<NotificationEnvelope> queue;
+    private final NotificationObservable observable;
+    private final NotificationHistory history;
+    private final LongAdder enqueued;
+    private final Thread dispatcher;
+    private volatile long delivered;   // written only by the dispatcher thread
+    private volatile boolean waiting;
+    private volatile boolean running;
+    private volatile boolean finished;
+    private final Object drained = new Object();
+    private volatile long drainTarget = Long.MAX_VALUE;   // lowest delivered count a drain waiter needs
+
+    public NotificationShard(int index, NotificationObservable observable, NotificationHistory history) {
+        this.queue = new ConcurrentLinkedQueue<>();
+        this.observable = observable;
+        this.history = history;
+        this.enqueued = new LongAdder();
+        this.running = true;
+        this.dispatcher = new Thread(this, "notification-dispatcher-" + index);
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    public void offer(NotificationEnvelope envelope) {
+        if (!running) {
+            throw new IllegalStateException("NotificationService has been shut down");
+        }
+        queue.offer(envelope);
+        enqueued.increment();
+        if (waiting) {
+            LockSupport.unpark(dispatcher);
+        }
+    }
+
+    @Override
+    public void run() {
+        while (running || !queue.isEmpty()) {
+            NotificationEnvelope envelope = queue.poll();
+            if (envelope == null) {
+                waiting = true;
+                // Re-check after announcing, so an offer racing with us is never missed
+                if (queue.isEmpty() && running) {
+                    LockSupport.park(this);
+                }
+                waiting = false;
+                continue;
+            }
+
+            try {
+                history.record(envelope.getRecipient(), envelope.getDelivery().getNotification());
+                observable.publish(envelope.getRecipient(), envelope.getDelivery());
+            } catch (RuntimeException e) {
+                System.out.println("[DISPATCH ERROR] " + envelope.getRecipient() + ": " + e);
+            }
+            delivered++;
+            if (delivered >= drainTarget) {
+                wakeDrainWaiters();
+            }
+        }
+        finished = true;
+        wakeDrainWaiters();
+    }
+
+    private void wakeDrainWaiters() {
+        synchronized (drained) {
+            drainTarget = Long.MAX_VALUE;
+            drained.notifyAll();
+        }
+    }
+
+    // Blocks until everything offered so far has been delivered
+    public void awaitDrained() {
+        long target = enqueued.sum();
+        synchronized (drained) {
+            while (!finished) {
+                // Publish the target before re-reading delivered, so the dispatcher either
+                // sees it or we see the delivery that reached it
+                drainTarget = Math.min(drainTarget, target);
+                if (delivered >= target) {
+                    return;
+                }
+                try {
+                    drained.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(dispatcher);
+        dispatcher.join();
+    }
+
+    public int getQueueDepth() {
+        return (int) (enqueued.sum() - delivered);
+    }
+
+    public long getDelivered() {
+        return delivered;
+    }
+
+}
@@ -0,0 +1,483 @@
+package notification_engine;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Value Object
+// Limits for a NotificationGuard
+class NotificationGuardPolicy {
+
+    private final double sendsPerSecond;
+    private final int burst;
+    private final double channelSendsPerSecond;
+    private final int channelBurst;
+    private final long dedupWindowMillis;
+    private final int maxTrackedKeys;
+    private final int dedupBitsPerWindow;
+
+    // sendsPerSecond/burst: token bucket per (recipient, channel)
+    // channelSendsPerSecond/channelBurst: token bucket per channel, shared by all its recipients
+    // dedupWindowMillis: the same content to the same (recipient, channel) inside this window is dropped
+    // maxTrackedKeys: token buckets kept at most; idle ones are reused first. The table grows
+    //   towards this as keys arrive, so a large limit costs nothing until it is used
+    // dedupBitsPerWindow: Bloom filter size; about 10 bits per message expected in a window keeps false drops near 1%
+    public NotificationGuardPolicy(double sendsPerSecond, int burst, double channelSendsPerSecond, int channelBurst,
+            long dedupWindowMillis, int maxTrackedKeys, int dedupBitsPerWindow) {
+        if (sendsPerSecond <= 0 || burst < 1 || channelSendsPerSecond <= 0 || channelBurst < 1
+                || dedupWindowMillis < 2 || maxTrackedKeys < 1 || dedupBitsPerWindow < 64) {
+            throw new IllegalArgumentException("Guard limits must be positive");
+        }
+        this.sendsPerSecond = sendsPerSecond;
+        this.burst = burst;
+        this.channelSendsPerSecond = channelSendsPerSecond;
+        this.channelBurst = channelBurst;
+        this.dedupWindowMillis = dedupWindowMillis;
+        this.maxTrackedKeys = maxTrackedKeys;
+        this.dedupBitsPerWindow = dedupBitsPerWindow;
+    }
+
+    // 10 sends per minute with bursts of 5 per recipient, 100 per second with bursts of 500 per
+    // channel, 10 minute dedup window, up to ~1M keys (24 MB once full), 8 Mbit filters
+    public static NotificationGuardPolicy defaults() {
+        return new NotificationGuardPolicy(10.0 / 60, 5, 100, 500, 10 * 60 * 1000, 1 << 20, 1 << 23);
+    }
+
+    public double getSendsPerSecond() {
+        return sendsPerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public double getChannelSendsPerSecond() {
+        return channelSendsPerSecond;
+    }
+
+    public int getChannelBurst() {
+        return channelBurst;
+    }
+
+    public long getDedupWindowMillis() {
+        return dedupWindowMillis;
+    }
+
+    public int getMaxTrackedKeys() {
+        return maxTrackedKeys;
+    }
+
+    public int getDedupBitsPerWindow() {
+        return dedupBitsPerWindow;
+    }
+
+}
+
+// Token buckets keyed by a 64-bit key, in primitive arrays (no per-key objects).
+// The table is split into stripes, each an open-addressed array guarded by its own lock.
+// A key lives in one of PROBE_LIMIT slots after its hash. When all of them are taken, a
+// slot whose bucket has refilled to full is reused - forgetting it changes nothing - and
+// failing that the stripe doubles, up to its share of maxKeys. Only a stripe at that size
+// evicts the least recently used bucket, which can only let a send through.
+// Memory is 24 bytes per slot, and grows with the keys actually seen.
+class TokenBucketTable {
+
+    private static final int STRIPES = 64;
+    private static final int PROBE_LIMIT = 16;
+    private static final int INITIAL_SLOTS = 64;
+    private static final long EMPTY = 0;
+
+    private static final class Stripe {
+        long[] keys;
+        long[] stamps;   // nanoTime of the last refill
+        double[] tokens;
+        int mask;
+
+        Stripe(int slots) {
+            keys = new long[slots];
+            stamps = new long[slots];
+            tokens = new double[slots];
+            mask = slots - 1;
+        }
+    }
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final int maxSlots;   // per stripe
+    private final double tokensPerNano;
+    private final int burst;
+    private final long refillNanos;   // from empty to full
+    private final LongAdder evictions = new LongAdder();
+
+    public TokenBucketTable(int maxKeys, double tokensPerSecond, int burst) {
+        this.maxSlots = Integer.highestOneBit(Math.max(PROBE_LIMIT, (maxKeys + STRIPES - 1) / STRIPES));
+        int slots = Math.min(INITIAL_SLOTS, maxSlots);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(slots);
+        }
+        this.tokensPerNano = tokensPerSecond / 1e9;
+        this.burst = burst;
+        this.refillNanos = (long) Math.ceil(burst / tokensPerNano);
+    }
+
+    // Takes one token from key's bucket if it has one
+    public boolean tryAcquire(long key, long nowNanos) {
+        if (key == EMPTY) {
+            key = 1;
+        }
+        Stripe stripe = stripes[(int) (key >>> 58)];
+        synchronized (stripe) {
+            int slot = find(stripe, key, nowNanos);
+            double available;
+            if (stripe.keys[slot] != key) {
+                stripe.keys[slot] = key;
+                available = burst;
+            } else {
+                available = Math.min(burst, stripe.tokens[slot] + (nowNanos - stripe.stamps[slot]) * tokensPerNano);
+            }
+            stripe.stamps[slot] = nowNanos;
+            if (available < 1) {
+                stripe.tokens[slot] = available;
+                return false;
+            }
+            stripe.tokens[slot] = available - 1;
+            return true;
+        }
+    }
+
+    // Slot holding key, else an empty slot, else a full (idle) bucket, else - once the stripe
+    // cannot grow - the least recently used
+    private int find(Stripe stripe, long key, long nowNanos) {
+        while (true) {
+            int home = (int) key & stripe.mask;
+            int free = -1;
+            int idle = -1;
+            int oldest = home;
+            for (int i = 0; i < PROBE_LIMIT; i++) {
+                int slot = (home + i) & stripe.mask;
+                long k = stripe.keys[slot];
+                if (k == key) {
+                    return slot;
+                }
+                if (k == EMPTY) {
+                    if (free < 0) {
+                        free = slot;
+                    }
+                } else if (idle < 0 && nowNanos - stripe.stamps[slot] >= refillNanos) {
+                    idle = slot;
+                } else if (stripe.stamps[slot] - stripe.stamps[oldest] < 0) {
+                    oldest = slot;
+                }
+            }
+            if (free >= 0) {
+                return free;
+            }
+            if (idle >= 0) {
+                return idle;
+            }
+            if (stripe.keys.length >= maxSlots) {
+                evictions.increment();
+                return oldest;
+            }
+            grow(stripe);
+        }
+    }
+
+    // Doubles the stripe and re-inserts its buckets. A bucket with no room left in its probe
+    // window is dropped, as an eviction would.
+    private void grow(Stripe stripe) {
+        long[] keys = stripe.keys;
+        long[] stamps = stripe.stamps;
+        double[] tokens = stripe.tokens;
+        Stripe bigger = new Stripe(keys.length * 2);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == EMPTY) {
+                continue;
+            }
+            int home = (int) keys[i] & bigger.mask;
+            boolean placed = false;
+            for (int p = 0; p < PROBE_LIMIT && !placed; p++) {
+                int slot = (home + p) & bigger.mask;
+                if (bigger.keys[slot] == EMPTY) {
+                    bigger.keys[slot] = keys[i];
+                    bigger.stamps[slot] = stamps[i];
+                    bigger.tokens[slot] = tokens[i];
+                    placed = true;
+                }
+            }
+            if (!placed) {
+                evictions.increment();
+            }
+        }
+        stripe.keys = bigger.keys;
+        stripe.stamps = bigger.stamps;
+        stripe.tokens = bigger.tokens;
+        stripe.mask = bigger.mask;
+    }
+
+    // Gives back the token taken by a tryAcquire whose send did not go ahead
+    public void refund(long key) {
+        if (key == EMPTY) {
+            key = 1;
+        }
+        Stripe stripe = stripes[(int) (key >>> 58)];
+        synchronized (stripe) {
+            int home = (int) key & stripe.mask;
+            for (int i = 0; i < PROBE_LIMIT; i++) {
+                int slot = (home + i) & stripe.mask;
+                if (stripe.keys[slot] == key) {
+                    stripe.tokens[slot] = Math.min(burst, stripe.tokens[slot] + 1);
+                    return;
+                }
+            }
+        }
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    // Slots currently allocated across all stripes
+    public long getCapacity() {
+        long slots = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                slots += stripe.keys.length;
+            }
+        }
+        return slots;
+    }
+
+}
+
+// Bloom filter over a sliding time window, in two fixed bit arrays.
+// Each generation covers half the window: lookups check the current and previous
+// generation, inserts go to the current one, and when the current one is half a window old
+// the previous one is cleared and becomes current. A message is therefore remembered for
+// between one half and one full window. False positives (a new message taken for a
+// duplicate) are possible; false negatives inside the window are not.
+class RotatingBloomFilter {
+
+    private static final int HASHES = 7;
+
+    private final long generationNanos;
+    private final int bitMask;
+    private volatile AtomicLongArray current;
+    private volatile AtomicLongArray previous;
+    private volatile long rotateAtNanos;
+
+    public RotatingBloomFilter(int bits, long windowMillis) {
+        int size = Integer.highestOneBit(bits);
+        this.bitMask = size - 1;
+        this.current = new AtomicLongArray(size / 64);
+        this.previous = new AtomicLongArray(size / 64);
+        this.generationNanos = windowMillis * 1_000_000 / 2;
+        this.rotateAtNanos = System.nanoTime() + generationNanos;
+    }
+
+    // Whether hash was (probably) already seen inside the window; records nothing
+    public boolean mightContain(long hash, long nowNanos) {
+        if (nowNanos - rotateAtNanos >= 0) {
+            rotate(nowNanos);
+        }
+        AtomicLongArray now = current;
+        AtomicLongArray before = previous;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        boolean inNow = true;
+        boolean inBefore = true;
+        for (int i = 0; i < HASHES && (inNow || inBefore); i++) {
+            int bit = (h1 + i * h2) & bitMask;
+            long mask = 1L << bit;
+            inNow &= (now.get(bit >>> 6) & mask) != 0;
+            inBefore &= (before.get(bit >>> 6) & mask) != 0;
+        }
+        return inNow || inBefore;
+    }
+
+    // Records hash and reports whether it was (probably) already seen inside the window
+    public boolean checkAndAdd(long hash, long nowNanos) {
+        if (nowNanos - rotateAtNanos >= 0) {
+            rotate(nowNanos);
+        }
+        AtomicLongArray now = current;
+        AtomicLongArray before = previous;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        boolean inNow = true;
+        boolean inBefore = true;
+        for (int i = 0; i < HASHES; i++) {
+            int bit = (h1 + i * h2) & bitMask;
+            long mask = 1L << bit;
+            long word = now.getAndAccumulate(bit >>> 6, mask, (w, m) -> w | m);
+            inNow &= (word & mask) != 0;
+            inBefore &= (before.get(bit >>> 6) & mask) != 0;
+        }
+        return inNow || inBefore;
+    }
+
+    private synchronized void rotate(long nowNanos) {
+        if (nowNanos - rotateAtNanos < 0) {
+            return;   // another thread rotated first
+        }
+        AtomicLongArray recycled = previous;
+        for (int i = 0; i < recycled.length(); i++) {
+            recycled.set(i, 0);
+        }
+        // Idle for a whole window or more: nothing in either generation is still in it
+        if (nowNanos - rotateAtNanos >= generationNanos) {
+            AtomicLongArray stale = current;
+            for (int i = 0; i < stale.length(); i++) {
+                stale.set(i, 0);
+            }
+        }
+        previous = current;
+        current = recycled;
+        rotateAtNanos = nowNanos + generationNanos;
+    }
+
+}
+
+// Rate limiting and deduplication in front of the notification channels.
+// One guard is shared by every GuardedNotificationStrategy, so the limits hold across
+// channels and threads, and memory is bounded however many recipients there are.
+// A send must pass both its (recipient, channel) bucket and its channel's bucket; the
+// recipient's is taken first, so one noisy recipient cannot spend the channel's budget.
+class NotificationGuard {
+
+    enum Verdict { SEND, RATE_LIMITED, CHANNEL_RATE_LIMITED, DUPLICATE }
+
+    private final NotificationGuardPolicy policy;
+    private final TokenBucketTable buckets;
+    private final TokenBucketTable channelBuckets;
+    private final RotatingBloomFilter recent;
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder channelRateLimited = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+
+    public NotificationGuard(NotificationGuardPolicy policy) {
+        this.policy = policy;
+        this.buckets = new TokenBucketTable(policy.getMaxTrackedKeys(), policy.getSendsPerSecond(), policy.getBurst());
+        // One bucket per channel: a few dozen keys at most, so the table's smallest size
+        this.channelBuckets = new TokenBucketTable(64, policy.getChannelSendsPerSecond(), policy.getChannelBurst());
+        this.recent = new RotatingBloomFilter(policy.getDedupBitsPerWindow(), policy.getDedupWindowMillis());
+    }
+
+    public NotificationGuardPolicy getPolicy() {
+        return policy;
+    }
+
+    // Duplicates are dropped before they cost a token. Only a message that is sent is
+    // remembered, so one dropped by a rate limit goes out when it is sent again later, and a
+    // drop refunds any token already taken for it.
+    public Verdict admit(String recipient, String channel, String msg) {
+        long now = System.nanoTime();
+        long key = hash(hash(FNV_OFFSET, recipient), channel);
+        long recipientKey = mix(key);
+        long channelKey = mix(hash(FNV_OFFSET, channel));
+        long contentHash = mix(hash(key, msg));
+        if (recent.mightContain(contentHash, now)) {
+            duplicates.increment();
+            return Verdict.DUPLICATE;
+        }
+        if (!buckets.tryAcquire(recipientKey, now)) {
+            rateLimited.increment();
+            return Verdict.RATE_LIMITED;
+        }
+        if (!channelBuckets.tryAcquire(channelKey, now)) {
+            buckets.refund(recipientKey);
+            channelRateLimited.increment();
+            return Verdict.CHANNEL_RATE_LIMITED;
+        }
+        // A racing send of the same message may have been admitted since the check above
+        if (recent.checkAndAdd(contentHash, now)) {
+            buckets.refund(recipientKey);
+            channelBuckets.refund(channelKey);
+            duplicates.increment();
+            return Verdict.DUPLICATE;
+        }
+        sent.increment();
+        return Verdict.SEND;
+    }
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    // 64-bit FNV-1a over the chars, with a separator so ("ab", "c") != ("a", "bc")
+    private static long hash(long h, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            h = (h ^ s.charAt(i)) * FNV_PRIME;
+        }
+        return (h ^ 0xFFFF) * FNV_PRIME;
+    }
+
+    // Spreads FNV's weak low bits (MurmurHash3 finaliser)
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    public long getSent() {
+        return sent.sum();
+    }
+
+    public long getRateLimited() {
+        return rateLimited.sum();
+    }
+
+    public long getChannelRateLimited() {
+        return channelRateLimited.sum();
+    }
+
+    public long getDuplicates() {
+        return duplicates.sum();
+    }
+
+    public void display() {
+        System.out.println("\n=== Notification Guard ===");
+        System.out.println("Sent: " + getSent() + ", rate limited: " + getRateLimited()
+                + " (channel limit: " + getChannelRateLimited() + "), duplicates: " + getDuplicates());
+        System.out.println("Token bucket slots: " + buckets.getCapacity() + ", evicted early: " + buckets.getEvictions());
+        System.out.println("==========================");
+    }
+
+}
+
+// Decorator Pattern: Strategy Decorator
+// Asks the guard before every send to one recipient on the wrapped channel. A dropped
+// message counts as handled: it is not retried, and the outbox still gets its ack.
+// The channel is named explicitly ("EMAIL", "SMS"): the wrapped strategy's class says nothing
+// about it once it is a BatchingNotificationStrategy, and channels must not share limits.
+class GuardedNotificationStrategy implements INotificationStrategy {
+
+    private final INotificationStrategy strategy;
+    private final String channel;
+    private final String recipient;
+    private final NotificationGuard guard;
+
+    public GuardedNotificationStrategy(INotificationStrategy strategy, String channel, String recipient, NotificationGuard guard) {
+        this.strategy = strategy;
+        this.channel = channel;
+        this.recipient = recipient;
+        this.guard = guard;
+    }
+
+    @Override
+    public void sendNotification(String msg) {
+        sendNotificationAsync(msg);
+    }
+
+    @Override
+    public CompletableFuture<Void> sendNotificationAsync(String msg) {
+        NotificationGuard.Verdict verdict = guard.admit(recipient, channel, msg);
+        if (verdict == NotificationGuard.Verdict.SEND) {
+            return strategy.sendNotificationAsync(msg);
+        }
+        System.out.println("[GUARD] " + verdict + " for " + recipient + " on " + channel);
+        return CompletableFuture.completedFuture(null);
+    }
+
+}
@@ -0,0 +1,383 @@
+package notification_engine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+// Value Object
+// One delivered notification as kept in history: the rendered content, not the decorator chain
+class HistoryEntry {
+
+    private final long timestampMillis;
+    private final String recipient;
+    private final String content;
+
+    public HistoryEntry(long timestampMillis, String recipient, String content) {
+        this.timestampMillis = timestampMillis;
+        this.recipient = recipient;
+        this.content = content;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    // Size of the entry's record in the spill log; also used as its size for byte retention
+    public int encodedSize() {
+        return HistorySegment.HEADER_BYTES + utf8Length(recipient) + utf8Length(content);
+    }
+
+    private static int utf8Length(String s) {
+        int bytes = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+}
+
+// Value Object
+// How much history to keep. An entry is dropped once any limit is exceeded, oldest first.
+class NotificationRetentionPolicy {
+
+    private final int maxRecentEntries;
+    private final long maxEntries;
+    private final long maxAgeMillis;
+    private final long maxBytes;
+
+    // maxRecentEntries: entries kept on-heap before older ones spill to disk
+    public NotificationRetentionPolicy(int maxRecentEntries, long maxEntries, long maxAgeMillis, long maxBytes) {
+        if (maxRecentEntries < 1 || maxEntries < 1 || maxAgeMillis < 1 || maxBytes < 1) {
+            throw new IllegalArgumentException("Retention limits must be positive");
+        }
+        this.maxRecentEntries = maxRecentEntries;
+        this.maxEntries = maxEntries;
+        this.maxAgeMillis = maxAgeMillis;
+        this.maxBytes = maxBytes;
+    }
+
+    public static NotificationRetentionPolicy defaults() {
+        return new NotificationRetentionPolicy(10_000, 1_000_000, 7L * 24 * 60 * 60 * 1000, 256L * 1024 * 1024);
+    }
+
+    public int getMaxRecentEntries() {
+        return maxRecentEntries;
+    }
+
+    public long getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getMaxAgeMillis() {
+        return maxAgeMillis;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+}
+
+// One memory-mapped file of the spill log.
+// Record: timestamp(8) recipientLength(2) contentLength(4) recipient(UTF-8) content(UTF-8).
+// Every INDEX_INTERVAL-th record is added to a sparse (timestamp, offset) index.
+class HistorySegment {
+
+    static final int HEADER_BYTES = 14;
+    private static final int INDEX_INTERVAL = 64;
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private long[] indexTimes = new long[16];
+    private int[] indexOffsets = new int[16];
+    private int indexSize;
+    private int entries;
+    private long bytes;
+    private long lastTimestamp;
+
+    public HistorySegment(Path file, int capacity) throws IOException {
+        this.file = file;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        }
+    }
+
+    public boolean fits(int size) {
+        return buffer.remaining() >= size;
+    }
+
+    public void append(HistoryEntry entry) {
+        int offset = buffer.position();
+        if (entries % INDEX_INTERVAL == 0) {
+            if (indexSize == indexTimes.length) {
+                indexTimes = Arrays.copyOf(indexTimes, indexSize * 2);
+                indexOffsets = Arrays.copyOf(indexOffsets, indexSize * 2);
+            }
+            indexTimes[indexSize] = entry.getTimestampMillis();
+            indexOffsets[indexSize] = offset;
+            indexSize++;
+        }
+
+        byte[] recipient = entry.getRecipient().getBytes(StandardCharsets.UTF_8);
+        byte[] content = entry.getContent().getBytes(StandardCharsets.UTF_8);
+        buffer.putLong(entry.getTimestampMillis());
+        buffer.putShort((short) recipient.length);
+        buffer.putInt(content.length);
+        buffer.put(recipient);
+        buffer.put(content);
+
+        entries++;
+        bytes += buffer.position() - offset;
+        lastTimestamp = entry.getTimestampMillis();
+    }
+
+    // Adds every entry with timestamp >= fromMillis, in time order
+    public void readSince(long fromMillis, List<HistoryEntry> out) {
+        if (entries == 0 || lastTimestamp < fromMillis) {
+            return;
+        }
+
+        // Last indexed record older than fromMillis; everything before it can be skipped
+        int lo = 0;
+        int hi = indexSize - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (indexTimes[mid] < fromMillis) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+
+        ByteBuffer in = buffer.duplicate();
+        int end = buffer.position();
+        int offset = indexOffsets[lo];
+        while (offset < end) {
+            long timestamp = in.getLong(offset);
+            int recipientLength = in.getShort(offset + 8) & 0xFFFF;
+            int contentLength = in.getInt(offset + 10);
+            int next = offset + HEADER_BYTES + recipientLength + contentLength;
+            if (timestamp >= fromMillis) {
+                out.add(new HistoryEntry(timestamp, readUtf8(in, offset + HEADER_BYTES, recipientLength),
+                        readUtf8(in, offset + HEADER_BYTES + recipientLength, contentLength)));
+            }
+            offset = next;
+        }
+    }
+
+    private static String readUtf8(ByteBuffer in, int offset, int length) {
+        byte[] raw = new byte[length];
+        in.get(offset, raw);
+        return new String(raw, StandardCharsets.UTF_8);
+    }
+
+    public void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    public int getEntries() {
+        return entries;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+}
+
+// Repository Pattern: Bounded History Store
+// Replaces the unbounded list of INotification objects in NotificationService.
+// The newest entries stay on-heap in a ring for fast recent-history queries; once that is
+// full the oldest ones spill into memory-mapped segment files. Retention by count, age and
+// bytes drops the oldest on-heap entries or whole spill segments, so heap and disk stay flat.
+// NotificationService records from its dispatcher threads, never from the sending thread.
+class NotificationHistory {
+
+    private static final int SEGMENT_BYTES = 4 * 1024 * 1024;
+
+    private final NotificationRetentionPolicy policy;
+    private final Path spillRoot;
+    private Path spillDirectory;
+    private final ArrayDeque<HistoryEntry> recent;
+    private final ArrayDeque<HistorySegment> segments;
+    private long recentBytes;
+    private long spilledEntries;
+    private long spilledBytes;
+    private long lastTimestamp;
+    private int nextSegment;
+
+    // Spill files go into a fresh directory under spillRoot, created on the first spill
+    public NotificationHistory(NotificationRetentionPolicy policy, Path spillRoot) {
+        this.policy = policy;
+        this.spillRoot = spillRoot;
+        this.recent = new ArrayDeque<>();
+        this.segments = new ArrayDeque<>();
+    }
+
+    public void record(String recipient, INotification notification) {
+        record(recipient, notification.getContent(), System.currentTimeMillis());
+    }
+
+    public synchronized void record(String recipient, String content, long timestampMillis) {
+        // Keep timestamps monotonic so the time index stays sorted even if the clock steps back
+        lastTimestamp = Math.max(lastTimestamp, timestampMillis);
+        HistoryEntry entry = new HistoryEntry(lastTimestamp, recipient, content);
+        recent.addLast(entry);
+        recentBytes += entry.encodedSize();
+
+        while (recent.size() > policy.getMaxRecentEntries()) {
+            spill(recent.removeFirst());
+        }
+        enforceRetention(lastTimestamp);
+    }
+
+    // Newest first, at most `limit` entries, served from the on-heap ring only
+    public synchronized List<HistoryEntry> recent(int limit) {
+        enforceRetention(System.currentTimeMillis());
+        List<HistoryEntry> result = new ArrayList<>(Math.min(limit, recent.size()));
+        Iterator<HistoryEntry> newestFirst = recent.descendingIterator();
+        while (newestFirst.hasNext() && result.size() < limit) {
+            result.add(newestFirst.next());
+        }
+        return result;
+    }
+
+    // Every retained entry with timestamp >= fromMillis, oldest first; reads spilled segments too
+    public synchronized List<HistoryEntry> since(long fromMillis) {
+        long now = System.currentTimeMillis();
+        enforceRetention(now);
+        long from = Math.max(fromMillis, now - policy.getMaxAgeMillis());
+
+        List<HistoryEntry> result = new ArrayList<>();
+        for (HistorySegment segment : segments) {
+            segment.readSince(from, result);
+        }
+        for (HistoryEntry entry : recent) {
+            if (entry.getTimestampMillis() >= from) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    // Drops all history and deletes this instance's spill directory; called on NotificationService shutdown
+    public synchronized void close() throws IOException {
+        clear();
+    }
+
+    // Drops all history and deletes the spill files
+    public synchronized void clear() throws IOException {
+        recent.clear();
+        recentBytes = 0;
+        while (!segments.isEmpty()) {
+            segments.removeFirst().delete();
+        }
+        spilledEntries = 0;
+        spilledBytes = 0;
+        if (spillDirectory != null) {
+            Files.deleteIfExists(spillDirectory);
+            spillDirectory = null;
+        }
+    }
+
+    public synchronized long getEntryCount() {
+        return recent.size() + spilledEntries;
+    }
+
+    public synchronized long getTotalBytes() {
+        return recentBytes + spilledBytes;
+    }
+
+    public synchronized int getRecentCount() {
+        return recent.size();
+    }
+
+    private void spill(HistoryEntry entry) {
+        int size = entry.encodedSize();
+        recentBytes -= size;
+        try {
+            HistorySegment active = segments.peekLast();
+            if (active == null || !active.fits(size)) {
+                if (spillDirectory == null) {
+                    Files.createDirectories(spillRoot);
+                    spillDirectory = Files.createTempDirectory(spillRoot, "history-");
+                }
+                Path file = spillDirectory.resolve(String.format("history-%06d.log", nextSegment++));
+                active = new HistorySegment(file, Math.max(SEGMENT_BYTES, size));
+                segments.addLast(active);
+            }
+            active.append(entry);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not spill notification history", e);
+        }
+        spilledEntries++;
+        spilledBytes += size;
+    }
+
+    // Drops whole spill segments first (they are older than anything on-heap), then on-heap entries.
+    // Count and byte limits therefore apply at segment granularity while anything is spilled.
+    private void enforceRetention(long now) {
+        long cutoff = now - policy.getMaxAgeMillis();
+        while (!segments.isEmpty()) {
+            HistorySegment oldest = segments.peekFirst();
+            boolean overLimit = getEntryCountUnlocked() > policy.getMaxEntries()
+                    || recentBytes + spilledBytes > policy.getMaxBytes();
+            if (!overLimit && oldest.getLastTimestamp() >= cutoff) {
+                break;
+            }
+            segments.removeFirst();
+            spilledEntries -= oldest.getEntries();
+            spilledBytes -= oldest.getBytes();
+            try {
+                oldest.delete();
+            } catch (IOException e) {
+                System.out.println("[HISTORY] Could not delete spill segment: " + e.getMessage());
+            }
+        }
+
+        while (!recent.isEmpty() && (getEntryCountUnlocked() > policy.getMaxEntries()
+                || recentBytes + spilledBytes > policy.getMaxBytes()
+                || recent.peekFirst().getTimestampMillis() < cutoff)) {
+            recentBytes -= recent.removeFirst().encodedSize();
+        }
+    }
+
+    private long getEntryCountUnlocked() {
+        return recent.size() + spilledEntries;
+    }
+
+}
@@ -0,0 +1,514 @@
+package notification_engine;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+// Value Object
+// An accepted notification that was not yet delivered on every channel when the outbox was
+// last open; NotificationService replays these at startup.
+// Holds either the rendered content or, for a TemplateNotification, its template id and arguments.
+class OutboxEntry {
+
+    private final long id;
+    private final String recipient;
+    private final String content;
+    private final String templateId;
+    private final String[] args;
+    private final NotificationPriority priority;
+    private final long acknowledgedChannels;
+
+    public OutboxEntry(long id, String recipient, String content, NotificationPriority priority, long acknowledgedChannels) {
+        this(id, recipient, content, null, null, priority, acknowledgedChannels);
+    }
+
+    public OutboxEntry(long id, String recipient, String templateId, String[] args, NotificationPriority priority, long acknowledgedChannels) {
+        this(id, recipient, null, templateId, args, priority, acknowledgedChannels);
+    }
+
+    private OutboxEntry(long id, String recipient, String content, String templateId, String[] args,
+            NotificationPriority priority, long acknowledgedChannels) {
+        this.id = id;
+        this.recipient = recipient;
+        this.content = content;
+        this.templateId = templateId;
+        this.args = args;
+        this.priority = priority;
+        this.acknowledgedChannels = acknowledgedChannels;
+    }
+
+    public OutboxEntry withAcknowledgedChannels(long acknowledged) {
+        return new OutboxEntry(id, recipient, content, templateId, args, priority, acknowledged);
+    }
+
+    public boolean isTemplated() {
+        return templateId != null;
+    }
+
+    // The notification to deliver again; templated entries are rendered from `templates`,
+    // which throws IllegalArgumentException if the template is not registered there
+    public INotification toNotification(NotificationTemplateRegistry templates) {
+        return isTemplated() ? new TemplateNotification(templates.get(templateId), args) : new SimpleNotification(content);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getRecipient() {
+        return recipient;
+    }
+
+    // Null for templated entries
+    public String getContent() {
+        return content;
+    }
+
+    public String getTemplateId() {
+        return templateId;
+    }
+
+    public String[] getArgs() {
+        return args;
+    }
+
+    public NotificationPriority getPriority() {
+        return priority;
+    }
+
+    public long getAcknowledgedChannels() {
+        return acknowledgedChannels;
+    }
+
+}
+
+// Write-Ahead Log Pattern: Durable Outbox
+// Accepted notifications are appended to segmented, append-only files before delivery, and
+// every channel's delivery is appended as an acknowledgement. Appends only copy into an
+// in-memory batch; a single committer thread writes the whole batch and forces it with one
+// fsync (group commit), then completes the futures of the entries it covered, in order.
+// At startup the segments are read back and every entry missing an acknowledgement is
+// returned for replay. A segment is deleted once every entry in it is fully acknowledged.
+//
+// Record: length(4) crc32(4) payload, where payload is
+//   ENTRY: type(1) id(8) priority(1) recipientLength(2) contentLength(4) recipient content
+//   TEMPLATE: type(1) id(8) priority(1) recipientLength(2) templateIdLength(2) argCount(2)
+//             recipient templateId, then argLength(4) arg for each argument
+//   ACK:   type(1) id(8) channel(1)
+// A torn record at the end of a segment (crash mid-write) fails its CRC and ends the read.
+class NotificationOutbox implements AutoCloseable {
+
+    private static final byte ENTRY = 1;
+    private static final byte ACK = 2;
+    private static final byte TEMPLATE = 3;
+    private static final long SEGMENT_BYTES = 64L * 1024 * 1024;
+    private static final String PREFIX = "outbox-";
+    private static final String SUFFIX = ".log";
+
+    // In-memory state of an entry that is not yet delivered everywhere
+    private static final class Pending {
+        final OutboxSegment segment;
+        long acknowledged;
+
+        Pending(OutboxSegment segment, long acknowledged) {
+            this.segment = segment;
+            this.acknowledged = acknowledged;
+        }
+    }
+
+    private static final class OutboxSegment {
+        final Path file;
+        int outstanding;   // entries in this segment not yet fully acknowledged
+
+        OutboxSegment(Path file) {
+            this.file = file;
+        }
+    }
+
+    private final Path directory;
+    private final int channelCount;
+    private final long allChannels;
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final List<OutboxSegment> segments = new ArrayList<>();
+    private final List<OutboxEntry> recovered;
+    private final Thread committer;
+
+    // Guarded by `this`: the batch being filled and the futures it will complete
+    private ByteBuffer batch = ByteBuffer.allocate(1 << 20);
+    private List<CompletableFuture<Long>> batchFutures = new ArrayList<>();
+    private List<Long> batchIds = new ArrayList<>();
+    private CompletableFuture<Long> lastAppended = CompletableFuture.completedFuture(-1L);
+    private long nextId;
+    private boolean running = true;
+
+    // Committer thread only
+    private FileChannel active;
+    private OutboxSegment activeSegment;
+    private long activeBytes;
+    private int nextSegment;
+    private ByteBuffer writing = ByteBuffer.allocate(1 << 20);
+
+    private final CRC32 crc = new CRC32();
+
+    public NotificationOutbox(Path directory, int channelCount) throws IOException {
+        if (channelCount < 1 || channelCount > 64) {
+            throw new IllegalArgumentException("Outbox tracks between 1 and 64 channels");
+        }
+        this.directory = directory;
+        this.channelCount = channelCount;
+        this.allChannels = channelCount == 64 ? -1L : (1L << channelCount) - 1;
+        Files.createDirectories(directory);
+
+        this.recovered = recover();
+        openSegment();
+
+        this.committer = new Thread(this::commitLoop, "notification-outbox");
+        this.committer.setDaemon(true);
+        this.committer.start();
+    }
+
+    public int getChannelCount() {
+        return channelCount;
+    }
+
+    // Undelivered entries found at startup, in acceptance order
+    public List<OutboxEntry> getRecoveredEntries() {
+        return recovered;
+    }
+
+    // Completes with the entry id once the entry is durable
+    public CompletableFuture<Long> append(String recipient, String content, NotificationPriority priority) {
+        byte[] recipientBytes = recipient.getBytes(StandardCharsets.UTF_8);
+        byte[] contentBytes = content.getBytes(StandardCharsets.UTF_8);
+        CompletableFuture<Long> durable = new CompletableFuture<>();
+        synchronized (this) {
+            long id = nextEntryId(8 + 16 + recipientBytes.length + contentBytes.length);
+            int start = beginRecord();
+            batch.put(ENTRY).putLong(id).put((byte) priority.ordinal())
+                    .putShort((short) recipientBytes.length).putInt(contentBytes.length)
+                    .put(recipientBytes).put(contentBytes);
+            endEntry(start, id, durable);
+        }
+        return durable;
+    }
+
+    // Stores the template id and arguments instead of the rendered message
+    public CompletableFuture<Long> append(String recipient, TemplateNotification notification, NotificationPriority priority) {
+        byte[] recipientBytes = recipient.getBytes(StandardCharsets.UTF_8);
+        byte[] templateBytes = notification.getTemplateId().getBytes(StandardCharsets.UTF_8);
+        String[] args = notification.getArgs();
+        byte[][] argBytes = new byte[args.length][];
+        int size = 8 + 17 + recipientBytes.length + templateBytes.length;
+        for (int i = 0; i < args.length; i++) {
+            argBytes[i] = args[i].getBytes(StandardCharsets.UTF_8);
+            size += 4 + argBytes[i].length;
+        }
+        CompletableFuture<Long> durable = new CompletableFuture<>();
+        synchronized (this) {
+            long id = nextEntryId(size);
+            int start = beginRecord();
+            batch.put(TEMPLATE).putLong(id).put((byte) priority.ordinal())
+                    .putShort((short) recipientBytes.length).putShort((short) templateBytes.length)
+                    .putShort((short) argBytes.length).put(recipientBytes).put(templateBytes);
+            for (byte[] arg : argBytes) {
+                batch.putInt(arg.length).put(arg);
+            }
+            endEntry(start, id, durable);
+        }
+        return durable;
+    }
+
+    // Caller holds the lock
+    private long nextEntryId(int recordBytes) {
+        if (!running) {
+            throw new IllegalStateException("Outbox is closed");
+        }
+        ensureBatch(recordBytes);
+        return nextId++;
+    }
+
+    // Caller holds the lock
+    private void endEntry(int start, long id, CompletableFuture<Long> durable) {
+        endRecord(start);
+        batchFutures.add(durable);
+        batchIds.add(id);
+        lastAppended = durable;
+        notifyAll();
+    }
+
+    // Records that `channel` delivered entry `id`. Acks ride along with the next group commit;
+    // one lost in a crash only means that channel sends the entry again after restart.
+    public void acknowledge(long id, int channel) {
+        Pending entry = pending.get(id);
+        if (entry == null) {
+            return;
+        }
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            ensureBatch(8 + 10);
+            int start = beginRecord();
+            batch.put(ACK).putLong(id).put((byte) channel);
+            endRecord(start);
+            notifyAll();
+        }
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    // Blocks until everything appended so far is durable
+    public void sync() {
+        CompletableFuture<Long> marker;
+        synchronized (this) {
+            marker = lastAppended;
+        }
+        marker.join();
+    }
+
+    private void ensureBatch(int bytes) {
+        if (batch.remaining() < bytes) {
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(batch.capacity() * 2, batch.position() + bytes));
+            batch.flip();
+            bigger.put(batch);
+            batch = bigger;
+        }
+    }
+
+    private int beginRecord() {
+        int start = batch.position();
+        batch.position(start + 8);   // length and crc, filled in by endRecord
+        return start;
+    }
+
+    private void endRecord(int start) {
+        int end = batch.position();
+        int length = end - start - 8;
+        crc.reset();
+        crc.update(batch.array(), start + 8, length);
+        batch.putInt(start, length);
+        batch.putInt(start + 4, (int) crc.getValue());
+    }
+
+    private void commitLoop() {
+        while (true) {
+            List<CompletableFuture<Long>> futures;
+            List<Long> ids;
+            synchronized (this) {
+                while (batch.position() == 0 && running) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (batch.position() == 0) {
+                    return;   // closed and drained
+                }
+                ByteBuffer full = batch;
+                batch = writing;
+                batch.clear();
+                writing = full;
+                futures = batchFutures;
+                ids = batchIds;
+                batchFutures = new ArrayList<>();
+                batchIds = new ArrayList<>();
+            }
+
+            try {
+                writing.flip();
+                OutboxSegment segment = activeSegment;
+                applyToIndex(writing.duplicate(), segment);
+                while (writing.hasRemaining()) {
+                    activeBytes += active.write(writing);
+                }
+                active.force(false);
+                if (activeBytes >= SEGMENT_BYTES) {
+                    active.close();
+                    openSegment();
+                }
+                for (int i = 0; i < futures.size(); i++) {
+                    futures.get(i).complete(ids.get(i));
+                }
+            } catch (IOException e) {
+                for (CompletableFuture<Long> future : futures) {
+                    future.completeExceptionally(e);
+                }
+            }
+            deleteAcknowledgedSegments();
+        }
+    }
+
+    // Updates the pending map for a batch about to be written to `segment`
+    private void applyToIndex(ByteBuffer records, OutboxSegment segment) {
+        while (records.hasRemaining()) {
+            int length = records.getInt();
+            records.getInt();   // crc, only checked when reading back
+            int payload = records.position();
+            byte type = records.get();
+            long id = records.getLong();
+            if (type == ENTRY || type == TEMPLATE) {
+                pending.put(id, new Pending(segment, 0));
+                synchronized (segments) {
+                    segment.outstanding++;
+                }
+            } else {
+                acknowledgeInMemory(id, records.get());
+            }
+            records.position(payload + length);
+        }
+    }
+
+    private void acknowledgeInMemory(long id, int channel) {
+        Pending entry = pending.get(id);
+        if (entry == null) {
+            return;
+        }
+        entry.acknowledged |= 1L << channel;
+        if ((entry.acknowledged & allChannels) == allChannels) {
+            pending.remove(id);
+            synchronized (segments) {
+                entry.segment.outstanding--;
+            }
+        }
+    }
+
+    private void deleteAcknowledgedSegments() {
+        synchronized (segments) {
+            while (segments.size() > 1 && segments.get(0).outstanding == 0) {
+                OutboxSegment done = segments.remove(0);
+                try {
+                    Files.deleteIfExists(done.file);
+                } catch (IOException e) {
+                    System.out.println("[OUTBOX] Could not delete " + done.file + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void openSegment() throws IOException {
+        Path file = directory.resolve(String.format("%s%06d%s", PREFIX, nextSegment++, SUFFIX));
+        active = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        activeSegment = new OutboxSegment(file);
+        activeBytes = 0;
+        synchronized (segments) {
+            segments.add(activeSegment);
+        }
+    }
+
+    // Reads every existing segment; new writes always go to a fresh segment after these
+    private List<OutboxEntry> recover() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        Collections.sort(files);
+
+        Map<Long, OutboxEntry> entries = new TreeMap<>();
+        for (Path file : files) {
+            OutboxSegment segment = new OutboxSegment(file);
+            segments.add(segment);
+            String name = file.getFileName().toString();
+            nextSegment = Math.max(nextSegment, Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length())) + 1);
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                while (in.remaining() >= 8) {
+                    int length = in.getInt();
+                    int checksum = in.getInt();
+                    if (length <= 0 || length > in.remaining()) {
+                        break;
+                    }
+                    byte[] payload = new byte[length];
+                    in.get(payload);
+                    crc.reset();
+                    crc.update(payload);
+                    if ((int) crc.getValue() != checksum) {
+                        break;
+                    }
+                    readRecord(ByteBuffer.wrap(payload), segment, entries);
+                }
+            }
+        }
+
+        List<OutboxEntry> undelivered = new ArrayList<>();
+        for (OutboxEntry entry : entries.values()) {
+            Pending state = pending.get(entry.getId());
+            if (state != null) {
+                undelivered.add(entry.withAcknowledgedChannels(state.acknowledged));
+            }
+        }
+        deleteAcknowledgedSegments();
+        return undelivered;
+    }
+
+    private void readRecord(ByteBuffer in, OutboxSegment segment, Map<Long, OutboxEntry> entries) {
+        byte type = in.get();
+        long id = in.getLong();
+        nextId = Math.max(nextId, id + 1);
+        if (type == ENTRY) {
+            NotificationPriority priority = NotificationPriority.values()[in.get()];
+            byte[] recipient = new byte[in.getShort() & 0xFFFF];
+            byte[] content = new byte[in.getInt()];
+            in.get(recipient);
+            in.get(content);
+            entries.put(id, new OutboxEntry(id, new String(recipient, StandardCharsets.UTF_8),
+                    new String(content, StandardCharsets.UTF_8), priority, 0));
+            pending.put(id, new Pending(segment, 0));
+            segment.outstanding++;
+        } else if (type == TEMPLATE) {
+            NotificationPriority priority = NotificationPriority.values()[in.get()];
+            byte[] recipient = new byte[in.getShort() & 0xFFFF];
+            byte[] templateId = new byte[in.getShort() & 0xFFFF];
+            String[] args = new String[in.getShort() & 0xFFFF];
+            in.get(recipient);
+            in.get(templateId);
+            for (int i = 0; i < args.length; i++) {
+                byte[] arg = new byte[in.getInt()];
+                in.get(arg);
+                args[i] = new String(arg, StandardCharsets.UTF_8);
+            }
+            entries.put(id, new OutboxEntry(id, new String(recipient, StandardCharsets.UTF_8),
+                    new String(templateId, StandardCharsets.UTF_8), args, priority, 0));
+            pending.put(id, new Pending(segment, 0));
+            segment.outstanding++;
+        } else if (type == ACK) {
+            acknowledgeInMemory(id, in.get());
+        }
+    }
+
+    // Commits whatever is batched, then stops the committer
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            running = false;
+            notifyAll();
+        }
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        active.close();
+    }
+
+}
@@ -0,0 +1,263 @@
+package notification_engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Priority lanes, highest first. Each lane has a default deadline budget, used when the
+// sender does not give one.
+enum NotificationPriority {
+    CRITICAL(1_000),
+    HIGH(10_000),
+    NORMAL(60_000),
+    BULK(600_000);
+
+    private final long deadlineBudgetMillis;
+
+    NotificationPriority(long deadlineBudgetMillis) {
+        this.deadlineBudgetMillis = deadlineBudgetMillis;
+    }
+
+    public long getDeadlineBudgetMillis() {
+        return deadlineBudgetMillis;
+    }
+
+    public long deadlineFromNow() {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineBudgetMillis);
+    }
+}
+
+// Log2-bucketed latency histogram in microseconds; lock-free to record, approximate to read
+class LatencyHistogram {
+
+    private static final int BUCKETS = 40;
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+
+    public void record(long latencyNanos) {
+        long micros = Math.max(1, latencyNanos / 1000);
+        int bucket = Math.min(BUCKETS - 1, 63 - Long.numberOfLeadingZeros(micros));
+        counts.incrementAndGet(bucket);
+        total.increment();
+    }
+
+    public long getCount() {
+        return total.sum();
+    }
+
+    // Upper bound (in microseconds) of the bucket holding the given percentile
+    public long percentileMicros(double fraction) {
+        long count = total.sum();
+        if (count == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(fraction * count);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts.get(bucket);
+            if (seen >= target) {
+                return 1L << (bucket + 1);
+            }
+        }
+        return 1L << BUCKETS;
+    }
+
+}
+
+// A notification waiting in a lane
+class ScheduledNotification implements Comparable<ScheduledNotification> {
+
+    final NotificationDelivery delivery;
+    final NotificationPriority priority;
+    final long deadlineNanos;
+    final long enqueuedNanos;
+    final long sequence;
+
+    ScheduledNotification(NotificationDelivery delivery, long sequence) {
+        this.delivery = delivery;
+        this.priority = delivery.getPriority();
+        this.deadlineNanos = delivery.getDeadlineNanos();
+        this.enqueuedNanos = System.nanoTime();
+        this.sequence = sequence;
+    }
+
+    // Earliest deadline first, arrival order on ties
+    @Override
+    public int compareTo(ScheduledNotification other) {
+        int byDeadline = Long.compare(deadlineNanos, other.deadlineNanos);
+        return byDeadline != 0 ? byDeadline : Long.compare(sequence, other.sequence);
+    }
+
+}
+
+// Scheduler between NotificationService and NotificationEngine.
+// Subscribes to the observable in place of the engine and releases notifications to it in
+// priority order: strict priority across lanes, earliest deadline first within a lane. Only
+// maxInFlight deliveries are handed to the engine at a time, so the backlog waits here, in
+// order, instead of in the channels' FIFO queues. A delivery stops counting once every
+// channel's strategy has taken it; a batching channel takes a message when it queues it, so
+// a batch window does not hold permits. Latency is still measured to full delivery.
+// Starvation protection: every STARVATION_INTERVAL-th release goes to a lower lane whose
+// head is already past its deadline, so bulk traffic keeps moving under sustained load.
+class NotificationScheduler implements IObserver {
+
+    private static final int STARVATION_INTERVAL = 8;
+
+    private final NotificationEngine engine;
+    private final NotificationPriority[] lanes = NotificationPriority.values();
+    private final List<PriorityQueue<ScheduledNotification>> queues;
+    private final LatencyHistogram[] latencies;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Semaphore inFlight;
+    private final Thread dispatcher;
+    private long sequence;
+    private long released;
+    private int queued;
+    private volatile boolean running = true;
+
+    public NotificationScheduler(NotificationEngine engine, int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Need at least 1 delivery in flight");
+        }
+        this.engine = engine;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.queues = new ArrayList<>(lanes.length);
+        this.latencies = new LatencyHistogram[lanes.length];
+        for (int i = 0; i < lanes.length; i++) {
+            queues.add(new PriorityQueue<>());
+            latencies[i] = new LatencyHistogram();
+        }
+        this.dispatcher = new Thread(this::dispatchLoop, "notification-scheduler");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    @Override
+    public void update(String message) {
+        update(NotificationDelivery.of(new SimpleNotification(message)));
+    }
+
+    @Override
+    public void update(NotificationDelivery delivery) {
+        lock.lock();
+        try {
+            queues.get(delivery.getPriority().ordinal()).add(new ScheduledNotification(delivery, sequence++));
+            queued++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatchLoop() {
+        try {
+            while (true) {
+                inFlight.acquire();
+                ScheduledNotification next = take();
+                if (next == null) {
+                    return;
+                }
+                List<CompletableFuture<Void>> taken = new ArrayList<>();
+                List<CompletableFuture<Void>> deliveries = engine.dispatch(next.delivery, taken);
+                CompletableFuture.allOf(taken.toArray(new CompletableFuture<?>[0]))
+                        .whenComplete((ignored, error) -> inFlight.release());
+                CompletableFuture.allOf(deliveries.toArray(new CompletableFuture<?>[0])).whenComplete((ignored, error) ->
+                        latencies[next.priority.ordinal()].record(System.nanoTime() - next.enqueuedNanos));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Next notification to release, or null once shut down and drained
+    private ScheduledNotification take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (queued == 0) {
+                if (!running) {
+                    return null;
+                }
+                notEmpty.await();
+            }
+            queued--;
+            released++;
+
+            if (released % STARVATION_INTERVAL == 0) {
+                ScheduledNotification overdue = pollOverdueLowerLane();
+                if (overdue != null) {
+                    return overdue;
+                }
+            }
+            for (PriorityQueue<ScheduledNotification> queue : queues) {
+                if (!queue.isEmpty()) {
+                    return queue.poll();
+                }
+            }
+            throw new IllegalStateException("Queued count out of sync");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Most overdue head among the lanes below the highest non-empty one
+    private ScheduledNotification pollOverdueLowerLane() {
+        long now = System.nanoTime();
+        int top = 0;
+        while (queues.get(top).isEmpty()) {
+            top++;
+        }
+        PriorityQueue<ScheduledNotification> best = null;
+        for (int lane = top + 1; lane < queues.size(); lane++) {
+            ScheduledNotification head = queues.get(lane).peek();
+            if (head != null && head.deadlineNanos < now
+                    && (best == null || head.deadlineNanos < best.peek().deadlineNanos)) {
+                best = queues.get(lane);
+            }
+        }
+        return best == null ? null : best.poll();
+    }
+
+    public int getQueued(NotificationPriority priority) {
+        lock.lock();
+        try {
+            return queues.get(priority.ordinal()).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public LatencyHistogram getLatency(NotificationPriority priority) {
+        return latencies[priority.ordinal()];
+    }
+
+    public void displayMetrics() {
+        System.out.println("\n=== Notification Scheduler ===");
+        for (NotificationPriority lane : lanes) {
+            LatencyHistogram histogram = getLatency(lane);
+            System.out.printf("%-8s queued %6d, delivered %8d, p50 <= %d us, p99 <= %d us%n", lane, getQueued(lane),
+                    histogram.getCount(), histogram.percentileMicros(0.50), histogram.percentileMicros(0.99));
+        }
+        System.out.println("==============================");
+    }
+
+    // Releases everything still queued to the engine, then stops the scheduler thread
+    public void shutdown() throws InterruptedException {
+        lock.lock();
+        try {
+            running = false;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        dispatcher.join();
+    }
+
+}
@@ -0,0 +1,192 @@
+package notification_engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Interpreter Pattern: Compiled Template
+// A message template such as "Order {0} ships on {1}" compiled once into literal and slot
+// segments: literals[i] is followed by args[slots[i]], and the last literal ends the message.
+// "{{" and "}}" are a literal "{" and "}". Rendering is a single pass of appends into a builder that each
+// thread reuses, so the only allocation per message is the resulting String.
+class NotificationTemplate {
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private final String id;
+    private final String source;
+    private final String[] literals;
+    private final int[] slots;
+    private final int argCount;
+
+    private NotificationTemplate(String id, String source, String[] literals, int[] slots) {
+        this.id = id;
+        this.source = source;
+        this.literals = literals;
+        this.slots = slots;
+        int maxSlot = -1;
+        for (int slot : slots) {
+            maxSlot = Math.max(maxSlot, slot);
+        }
+        this.argCount = maxSlot + 1;
+    }
+
+    public static NotificationTemplate compile(String id, String source) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if ((c == '{' || c == '}') && i + 1 < source.length() && source.charAt(i + 1) == c) {
+                literal.append(c);
+                i += 2;
+            } else if (c == '{') {
+                int close = source.indexOf('}', i);
+                if (close < 0) {
+                    throw new IllegalArgumentException("Template " + id + ": unclosed '{' at " + i);
+                }
+                int slot;
+                try {
+                    slot = Integer.parseInt(source.substring(i + 1, close));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Template " + id + ": expected {<index>} at " + i);
+                }
+                if (slot < 0) {
+                    throw new IllegalArgumentException("Template " + id + ": negative slot at " + i);
+                }
+                literals.add(literal.toString());
+                literal.setLength(0);
+                slots.add(slot);
+                i = close + 1;
+            } else {
+                literal.append(c);
+                i++;
+            }
+        }
+        literals.add(literal.toString());
+
+        int[] slotArray = new int[slots.size()];
+        for (int s = 0; s < slotArray.length; s++) {
+            slotArray[s] = slots.get(s);
+        }
+        return new NotificationTemplate(id, source, literals.toArray(new String[0]), slotArray);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    // Arguments a notification must carry: one past the highest slot index
+    public int getArgCount() {
+        return argCount;
+    }
+
+    public TemplateNotification with(Object... args) {
+        String[] values = new String[args.length];
+        for (int i = 0; i < args.length; i++) {
+            values[i] = String.valueOf(args[i]);
+        }
+        return new TemplateNotification(this, values);
+    }
+
+    public void renderTo(StringBuilder out, String[] args) {
+        if (args.length < argCount) {
+            throw new IllegalArgumentException("Template " + id + " needs " + argCount + " arguments, got " + args.length);
+        }
+        for (int i = 0; i < slots.length; i++) {
+            out.append(literals[i]).append(args[slots[i]]);
+        }
+        out.append(literals[slots.length]);
+    }
+
+    public String render(String[] args) {
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        renderTo(out, args);
+        String rendered = out.toString();
+        if (out.capacity() > 64 * 1024) {
+            BUFFER.remove();   // don't pin one huge message's buffer to the thread
+        }
+        return rendered;
+    }
+
+}
+
+// Registry of compiled templates by id; each template is compiled once, at registration
+class NotificationTemplateRegistry {
+
+    private final ConcurrentHashMap<String, NotificationTemplate> templates = new ConcurrentHashMap<>();
+
+    public NotificationTemplate register(String id, String source) {
+        NotificationTemplate template = NotificationTemplate.compile(id, source);
+        templates.put(id, template);
+        return template;
+    }
+
+    public NotificationTemplate get(String id) {
+        NotificationTemplate template = templates.get(id);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown template: " + id);
+        }
+        return template;
+    }
+
+    public TemplateNotification notification(String id, Object... args) {
+        return get(id).with(args);
+    }
+
+    public int size() {
+        return templates.size();
+    }
+
+}
+
+// Decorator Pattern: Concrete Component
+// A notification as (template, arguments) instead of a built string. It is rendered on first
+// use - once per notification, since NotificationService flattens it into a
+// RenderedNotification shared by every channel - and the outbox stores only the template id
+// and arguments.
+final class TemplateNotification implements INotification {
+
+    private final NotificationTemplate template;
+    private final String[] args;
+    private String content;  // rendered on first use; racing threads produce equal strings
+
+    public TemplateNotification(NotificationTemplate template, String[] args) {
+        if (args.length < template.getArgCount()) {
+            throw new IllegalArgumentException("Template " + template.getId() + " needs " + template.getArgCount()
+                    + " arguments, got " + args.length);
+        }
+        this.template = template;
+        this.args = args;
+    }
+
+    public NotificationTemplate getTemplate() {
+        return template;
+    }
+
+    public String getTemplateId() {
+        return template.getId();
+    }
+
+    // Shared, not copied; callers must not modify it
+    public String[] getArgs() {
+        return args;
+    }
+
+    @Override
+    public String getContent() {
+        String rendered = content;
+        if (rendered == null) {
+            rendered = template.render(args);
+            content = rendered;
+        }
+        return rendered;
+    }
+
+}
@@ -0,0 +1,196 @@
+package notification_engine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+// Observer Pattern: Observer Registry
+// Holds the observers of a subject, optionally per topic, for a publish path that never locks.
+// Each topic keeps an immutable snapshot (slot array + size) in a volatile field. Writers
+// (serialised on the registry) append into spare capacity and publish a new snapshot, and
+// unsubscribing through a Subscription handle just clears its slot; the array is compacted
+// once half of it is cleared. Subscribe and unsubscribe are therefore amortised O(1), and a
+// publish reads one volatile field and walks an array.
+class ObserverRegistry<T> {
+
+    private static final int MIN_CAPACITY = 4;
+    private static final int MIN_COMPACT = 16;
+
+    // Handle for one subscription; unsubscribe() needs no search
+    public final class Subscription {
+        private final T observer;
+        private final String topic;
+        private Bucket bucket;
+        private int index;   // slot in bucket, -1 once removed
+
+        private Subscription(T observer, String topic) {
+            this.observer = observer;
+            this.topic = topic;
+        }
+
+        public T getObserver() {
+            return observer;
+        }
+
+        // Topic subscribed to, or null for every topic
+        public String getTopic() {
+            return topic;
+        }
+
+        public boolean isActive() {
+            synchronized (ObserverRegistry.this) {
+                return index >= 0;
+            }
+        }
+
+        public void unsubscribe() {
+            synchronized (ObserverRegistry.this) {
+                if (index < 0) {
+                    return;
+                }
+                removeSlot(this);
+                List<Subscription> subscriptions = byObserver.get(observer);
+                subscriptions.remove(this);
+                if (subscriptions.isEmpty()) {
+                    byObserver.remove(observer);
+                }
+            }
+        }
+    }
+
+    private static final class Snapshot {
+        final Object[] slots;   // [0, size) are observers or null for removed ones
+        final int size;
+
+        Snapshot(Object[] slots, int size) {
+            this.slots = slots;
+            this.size = size;
+        }
+    }
+
+    private final class Bucket {
+        final String topic;
+        volatile Snapshot snapshot = new Snapshot(new Object[MIN_CAPACITY], 0);
+        Object[] handles = new Object[MIN_CAPACITY];   // Subscription per slot, writer side only
+        int live;
+        int removed;
+
+        Bucket(String topic) {
+            this.topic = topic;
+        }
+    }
+
+    private final Bucket everyTopic = new Bucket(null);
+    private final ConcurrentHashMap<String, Bucket> topics = new ConcurrentHashMap<>();
+    private final Map<T, List<Subscription>> byObserver = new HashMap<>();
+    private volatile int subscriptionCount;
+
+    // Receives everything published, whatever the topic
+    public Subscription subscribe(T observer) {
+        return subscribe(null, observer);
+    }
+
+    // Receives only what is published on `topic`; null means every topic
+    public synchronized Subscription subscribe(String topic, T observer) {
+        Bucket bucket = topic == null ? everyTopic : topics.computeIfAbsent(topic, Bucket::new);
+        Subscription subscription = new Subscription(observer, topic);
+        appendSlot(bucket, subscription);
+        byObserver.computeIfAbsent(observer, o -> new ArrayList<>(1)).add(subscription);
+        return subscription;
+    }
+
+    // Removes every subscription of this observer (equals-based, like the old list registry)
+    public synchronized void unsubscribe(T observer) {
+        List<Subscription> subscriptions = byObserver.remove(observer);
+        if (subscriptions == null) {
+            return;
+        }
+        for (Subscription subscription : subscriptions) {
+            removeSlot(subscription);
+        }
+    }
+
+    // Calls action for every observer of `topic` plus every all-topics observer. Never locks.
+    public void forEach(String topic, Consumer<? super T> action) {
+        deliver(everyTopic.snapshot, action);
+        if (topic != null) {
+            Bucket bucket = topics.get(topic);
+            if (bucket != null) {
+                deliver(bucket.snapshot, action);
+            }
+        }
+    }
+
+    public int size() {
+        return subscriptionCount;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void deliver(Snapshot snapshot, Consumer<? super T> action) {
+        Object[] slots = snapshot.slots;
+        for (int i = 0; i < snapshot.size; i++) {
+            Object observer = slots[i];
+            if (observer != null) {
+                action.accept((T) observer);
+            }
+        }
+    }
+
+    private void appendSlot(Bucket bucket, Subscription subscription) {
+        Snapshot snapshot = bucket.snapshot;
+        if (snapshot.size == snapshot.slots.length) {
+            snapshot = compact(bucket, Math.max(MIN_CAPACITY, bucket.live * 2 + 1));
+        }
+        // Slots at and beyond `size` are invisible to readers of the current snapshot
+        snapshot.slots[snapshot.size] = subscription.observer;
+        bucket.handles[snapshot.size] = subscription;
+        subscription.bucket = bucket;
+        subscription.index = snapshot.size;
+        bucket.live++;
+        bucket.snapshot = new Snapshot(snapshot.slots, snapshot.size + 1);
+        subscriptionCount++;
+    }
+
+    private void removeSlot(Subscription subscription) {
+        Bucket bucket = subscription.bucket;
+        bucket.snapshot.slots[subscription.index] = null;
+        bucket.handles[subscription.index] = null;
+        subscription.index = -1;
+        bucket.live--;
+        bucket.removed++;
+        subscriptionCount--;
+
+        if (bucket.live == 0 && bucket.topic != null) {
+            topics.remove(bucket.topic);
+        } else if (bucket.removed >= MIN_COMPACT && bucket.removed > bucket.live) {
+            compact(bucket, Math.max(MIN_CAPACITY, bucket.live * 2));
+        }
+    }
+
+    // Copies live slots into fresh arrays; readers of the old snapshot are unaffected
+    @SuppressWarnings("unchecked")
+    private Snapshot compact(Bucket bucket, int capacity) {
+        Snapshot old = bucket.snapshot;
+        Object[] slots = new Object[capacity];
+        Object[] handles = new Object[capacity];
+        int size = 0;
+        for (int i = 0; i < old.size; i++) {
+            Subscription subscription = (Subscription) bucket.handles[i];
+            if (subscription != null) {
+                slots[size] = subscription.observer;
+                handles[size] = subscription;
+                subscription.index = size;
+                size++;
+            }
+        }
+        bucket.handles = handles;
+        bucket.removed = 0;
+        Snapshot compacted = new Snapshot(slots, size);
+        bucket.snapshot = compacted;
+        return compacted;
+    }
+
+}
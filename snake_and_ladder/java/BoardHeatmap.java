@@ -0,0 +1,97 @@
+package snake_and_ladder.java;
+
+import java.util.*;
+
+// Heatmap report over the merged counters of a simulation run.
+// Shows where tokens come to rest, which cells are hottest, and how much each snake / ladder
+// actually moves players per game (hits x jump length), so a layout can be tuned from data.
+class BoardHeatmap {
+    private static final char[] SHADES = { ' ', '.', ':', '-', '=', '+', '*', '#', '%', '@' };
+    private static final int MAX_GRID_SIDE = 20;
+    private static final int HOT_CELLS = 10;
+
+    private final Board board;
+    private final long[] cellVisits;
+    private final long[] entityHits;
+    private final long games;
+
+    public BoardHeatmap(Board board, SimulationAccumulator totals) {
+        this.board = board;
+        this.cellVisits = totals.getCellVisits();
+        this.entityHits = totals.getEntityHits();
+        this.games = totals.getGamesPlayed();
+    }
+
+    public double getVisitsPerGame(int cell) {
+        return games == 0 ? 0 : (double) cellVisits[cell] / games;
+    }
+
+    public double getHitsPerGame(BoardEntity entity) {
+        return games == 0 ? 0 : (double) entityHits[entity.getStart()] / games;
+    }
+
+    // Cells gained (ladder) or lost (snake) per game through this entity
+    public double getCellsMovedPerGame(BoardEntity entity) {
+        return getHitsPerGame(entity) * (entity.getEnd() - entity.getStart());
+    }
+
+    // Busiest cells first
+    public int[] getHottestCells(int count) {
+        Integer[] cells = new Integer[cellVisits.length - 1];
+        for(int i = 0; i < cells.length; i++) {
+            cells[i] = i + 1;
+        }
+        Arrays.sort(cells, (a, b) -> Long.compare(cellVisits[b], cellVisits[a]));
+
+        int[] hottest = new int[Math.min(count, cells.length)];
+        for(int i = 0; i < hottest.length; i++) {
+            hottest[i] = cells[i];
+        }
+        return hottest;
+    }
+
+    public void display() {
+        System.out.println("\n=== Board Heatmap ===");
+        System.out.println("Games: " + games);
+
+        int side = (int) Math.round(Math.sqrt(board.getBoardSize()));
+        if(side <= MAX_GRID_SIDE) {
+            displayGrid(side);
+        }
+
+        System.out.println("\nHottest cells (visits per game):");
+        for(int cell : getHottestCells(HOT_CELLS)) {
+            System.out.printf("Cell %d: %.3f%n", cell, getVisitsPerGame(cell));
+        }
+
+        List<BoardEntity> entities = new ArrayList<>(board.getSnakesAndLadders());
+        entities.sort((a, b) -> Double.compare(Math.abs(getCellsMovedPerGame(b)), Math.abs(getCellsMovedPerGame(a))));
+        System.out.println("\nSnake / ladder impact (hits per game, cells moved per game):");
+        for(BoardEntity entity : entities) {
+            System.out.printf("%s %d -> %d: %.3f hits, %+.2f cells%n",
+                entity.name(), entity.getStart(), entity.getEnd(), getHitsPerGame(entity), getCellsMovedPerGame(entity));
+        }
+        System.out.println("=====================");
+    }
+
+    // Board drawn as played: cell 1 bottom left, rows alternate direction, last cell on top
+    private void displayGrid(int side) {
+        long max = 1;
+        for(int cell = 1; cell < cellVisits.length; cell++) {
+            max = Math.max(max, cellVisits[cell]);
+        }
+
+        System.out.println("\nVisits (' ' = none, '@' = busiest cell):");
+        for(int row = side - 1; row >= 0; row--) {
+            StringBuilder line = new StringBuilder();
+            for(int col = 0; col < side; col++) {
+                int offset = row % 2 == 0 ? col : side - 1 - col;
+                int cell = row * side + offset + 1;
+                int shade = (int) ((SHADES.length - 1) * cellVisits[cell] / max);
+                if(cellVisits[cell] > 0 && shade == 0) shade = 1;
+                line.append(SHADES[shade]).append(SHADES[shade]);
+            }
+            System.out.println("|" + line + "|");
+        }
+    }
+}
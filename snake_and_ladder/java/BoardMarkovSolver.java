@@ -0,0 +1,149 @@
+package snake_and_ladder.java;
+
+import java.util.Arrays;
+
+// Exact board analysis as an absorbing Markov chain.
+// States are the cells 0..boardSize a single token can rest on; boardSize is absorbing.
+// Follows StandardSnakeAndLadderRules: a roll that overshoots the last cell is lost
+// (the token stays put), otherwise the token lands and takes its snake / ladder as
+// resolved by Board.resolvePosition (one jump, never chained).
+//
+// The transition matrix is never built densely - each row has at most `faces` non-zero
+// entries, so it is kept as a flat int[] of destinations (cell * faces + roll - 1).
+class BoardMarkovSolver {
+    private static final double TOLERANCE = 1e-10;
+    private static final int MAX_SWEEPS = 100_000;
+    private static final double MAX_EXPECTED_TURNS = 1e12;
+    private static final double RATE_STABILITY = 1e-3;
+
+    private int boardSize;
+    private int faces;
+    private int[] destination;
+    private double[] expectedTurns;
+
+    public BoardMarkovSolver(Board board, int faces) {
+        this.boardSize = board.getBoardSize();
+        this.faces = faces;
+        this.destination = new int[(boardSize + 1) * faces];
+
+        // Resolve where a roll lands once, so the solver never touches the entity map again
+        int[] landing = new int[boardSize + 1];
+        for(int cell = 0; cell <= boardSize; cell++) {
+            landing[cell] = board.resolvePosition(cell);
+        }
+        for(int cell = 0; cell <= boardSize; cell++) {
+            for(int roll = 1; roll <= faces; roll++) {
+                int target = cell + roll;
+                destination[cell * faces + roll - 1] = target <= boardSize ? landing[target] : cell;
+            }
+        }
+    }
+
+    public BoardMarkovSolver(Board board, Dice dice) {
+        this(board, dice.getFaces());
+    }
+
+    // Expected number of turns for one token to go from cell 0 to the last cell
+    public double getExpectedTurns() {
+        return solveExpectedTurns()[0];
+    }
+
+    public double getExpectedTurnsFrom(int cell) {
+        return solveExpectedTurns()[cell];
+    }
+
+    // Solves E[i] = 1 + (1/faces) * sum E[dest(i, roll)] with E[boardSize] = 0.
+    // Gauss-Seidel sweeping from the last cell backwards: ladders and plain moves point
+    // forward, so they are already up to date when a cell is visited and only snakes
+    // need further sweeps. Self-loops (lost rolls) are folded into the diagonal.
+    private double[] solveExpectedTurns() {
+        if(expectedTurns != null) return expectedTurns;
+
+        double[] e = new double[boardSize + 1];
+        double[] previous = new double[boardSize + 1];
+        double previousChange = 0;
+        double previousRate = 0;
+        for(int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+            System.arraycopy(e, 0, previous, 0, e.length);
+            double maxChange = 0;
+            for(int cell = boardSize - 1; cell >= 0; cell--) {
+                double sum = 0;
+                int selfLoops = 0;
+                int row = cell * faces;
+                for(int r = 0; r < faces; r++) {
+                    int next = destination[row + r];
+                    if(next == cell) selfLoops++;
+                    else sum += e[next];
+                }
+                // A roll of 1 is always valid below the last cell, so selfLoops < faces
+                double updated = (faces + sum) / (faces - selfLoops);
+                maxChange = Math.max(maxChange, Math.abs(updated - e[cell]));
+                e[cell] = updated;
+            }
+            if(e[0] > MAX_EXPECTED_TURNS) {
+                throw new IllegalStateException("Last cell is unreachable from the start on this board");
+            }
+            if(maxChange <= TOLERANCE * Math.max(1.0, e[0])) {
+                expectedTurns = e;
+                return e;
+            }
+
+            // Snakes make the error shrink by a steady factor per sweep once the slowest
+            // mode dominates; when that factor settles, jump straight to the geometric limit
+            double rate = previousChange == 0 ? 0 : maxChange / previousChange;
+            if(rate > 0 && rate < 1 && Math.abs(rate - previousRate) < RATE_STABILITY) {
+                double factor = rate / (1 - rate);
+                for(int cell = 0; cell < boardSize; cell++) {
+                    e[cell] += (e[cell] - previous[cell]) * factor;
+                }
+                rate = 0;
+            }
+            previousChange = maxChange;
+            previousRate = rate;
+        }
+        throw new IllegalStateException("Markov solver did not converge for board of size " + boardSize);
+    }
+
+    // Probability that the token reaches the last cell on exactly turn t (index t), for t <= maxTurns.
+    // Forward propagation of the state distribution, one sparse matrix-vector product per turn.
+    public double[] getFinishDistribution(int maxTurns) {
+        double[] pmf = new double[maxTurns + 1];
+        double[] current = new double[boardSize + 1];
+        double[] next = new double[boardSize + 1];
+        current[0] = 1.0;
+        double p = 1.0 / faces;
+
+        for(int turn = 1; turn <= maxTurns; turn++) {
+            Arrays.fill(next, 0);
+            for(int cell = 0; cell < boardSize; cell++) {
+                double mass = current[cell];
+                if(mass == 0) continue;
+                int row = cell * faces;
+                double share = mass * p;
+                for(int r = 0; r < faces; r++) {
+                    next[destination[row + r]] += share;
+                }
+            }
+            pmf[turn] = next[boardSize];
+            next[boardSize] = 0;  // absorbed, stop carrying it forward
+
+            double[] tmp = current;
+            current = next;
+            next = tmp;
+        }
+        return pmf;
+    }
+
+    // Expected rounds until the first of numPlayers independent tokens finishes:
+    // sum over t of P(all tokens still playing after t turns) = sum S(t)^numPlayers
+    public double getExpectedRoundsToFirstFinish(int numPlayers, int maxTurns) {
+        double[] pmf = getFinishDistribution(maxTurns);
+        double survival = 1.0;
+        double expected = 0;
+        for(int t = 0; t < maxTurns; t++) {
+            survival -= pmf[t];
+            expected += Math.pow(Math.max(survival, 0), numPlayers);
+        }
+        return expected;
+    }
+}
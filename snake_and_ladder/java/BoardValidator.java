@@ -0,0 +1,235 @@
+package snake_and_ladder.java;
+
+import java.util.*;
+
+// Findings of a board validation pass.
+// Errors make the board unplayable or misleading, warnings are legal but probably unintended.
+class BoardValidationReport {
+    private final List<String> errors = new ArrayList<>();
+    private final List<String> warnings = new ArrayList<>();
+    private int unreachableCells;
+    private int trapCells;
+
+    public void addError(String msg) {
+        errors.add(msg);
+    }
+
+    public void addWarning(String msg) {
+        warnings.add(msg);
+    }
+
+    public void setUnreachableCells(int count) {
+        unreachableCells = count;
+    }
+
+    public void setTrapCells(int count) {
+        trapCells = count;
+    }
+
+    public boolean isValid() {
+        return errors.isEmpty();
+    }
+
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    public List<String> getWarnings() {
+        return Collections.unmodifiableList(warnings);
+    }
+
+    // Cells a token can never rest on when starting from cell 0
+    public int getUnreachableCells() {
+        return unreachableCells;
+    }
+
+    // Reachable cells from which the last cell can never be reached
+    public int getTrapCells() {
+        return trapCells;
+    }
+
+    public void display() {
+        System.out.println("\n=== Board Validation ===");
+        System.out.println(isValid() ? "Board is valid" : "Board is INVALID");
+        for(String error : errors) {
+            System.out.println("ERROR: " + error);
+        }
+        for(String warning : warnings) {
+            System.out.println("WARNING: " + warning);
+        }
+        System.out.println("Unreachable cells: " + unreachableCells + ", trap cells: " + trapCells);
+        System.out.println("========================");
+    }
+}
+
+// One-off validation of a completed board, run at setup time so the move path does not
+// need defensive checks. Everything is linear in the number of cells and entities:
+// - endpoint checks per entity,
+// - chained jumps and jump loops via a colouring walk over the entity graph,
+// - reachability via BFS over the cell graph, forward from cell 0 and backwards from the last cell.
+class BoardValidator {
+    private final Board board;
+    private final int faces;
+    private final int boardSize;
+    private int[] landing;
+
+    public BoardValidator(Board board, int faces) {
+        this.board = board;
+        this.faces = faces;
+        this.boardSize = board.getBoardSize();
+    }
+
+    public BoardValidationReport validate() {
+        BoardValidationReport report = new BoardValidationReport();
+        checkEndpoints(report);
+        checkChains(report);
+        if(report.isValid()) {
+            // Needs every jump to land on the board
+            checkReachability(report);
+        }
+        return report;
+    }
+
+    private void checkEndpoints(BoardValidationReport report) {
+        for(BoardEntity entity : board.getSnakesAndLadders()) {
+            int start = entity.getStart();
+            int end = entity.getEnd();
+            String label = entity.name() + " " + start + " -> " + end;
+
+            if(start < 1 || start >= boardSize) {
+                report.addError(label + ": start must be between 1 and " + (boardSize - 1));
+            }
+            if(end < 1 || end > boardSize) {
+                report.addError(label + ": end must be between 1 and " + boardSize);
+            }
+            if(entity.name().equals("SNAKE") && end >= start) {
+                report.addError(label + ": snake must go down");
+            }
+            if(entity.name().equals("LADDER") && end <= start) {
+                report.addError(label + ": ladder must go up");
+            }
+        }
+        for(BoardEntity entity : board.getRejectedEntities()) {
+            report.addWarning(entity.name() + " " + entity.getStart() + " -> " + entity.getEnd()
+                + " was dropped, cell " + entity.getStart() + " already has an entity");
+        }
+    }
+
+    // Entities form a functional graph: start -> end, which continues if end is another start
+    private void checkChains(BoardValidationReport report) {
+        final int unvisited = 0, inProgress = 1, done = 2;
+        int[] state = new int[boardSize + 1];
+
+        for(BoardEntity entity : board.getSnakesAndLadders()) {
+            int end = entity.getEnd();
+            if(inRange(end) && board.getEntity(end) != null) {
+                report.addWarning(entity.name() + " " + entity.getStart() + " -> " + end
+                    + " ends on another " + board.getEntity(end).name().toLowerCase());
+            }
+        }
+
+        for(BoardEntity entity : board.getSnakesAndLadders()) {
+            int cell = entity.getStart();
+            if(!inRange(cell) || state[cell] != unvisited) continue;
+
+            // Walk the chain, marking it in progress; meeting an in-progress cell means a loop
+            List<Integer> path = new ArrayList<>();
+            while(inRange(cell) && state[cell] == unvisited && board.getEntity(cell) != null) {
+                state[cell] = inProgress;
+                path.add(cell);
+                cell = board.getEntity(cell).getEnd();
+            }
+            if(inRange(cell) && state[cell] == inProgress) {
+                report.addWarning("Snakes and ladders form a loop through cell " + cell);
+            }
+            for(int visited : path) {
+                state[visited] = done;
+            }
+        }
+    }
+
+    private void checkReachability(BoardValidationReport report) {
+        // Resolve every cell's jump once instead of per edge
+        landing = new int[boardSize + 1];
+        for(int cell = 0; cell <= boardSize; cell++) {
+            landing[cell] = board.resolvePosition(cell);
+        }
+
+        // Forward adjacency is implicit (cell + roll, then the jump); build the reverse
+        // edges as a CSR array so the backwards BFS is linear too
+        int[] reverseCount = new int[boardSize + 2];
+        for(int cell = 0; cell < boardSize; cell++) {
+            for(int roll = 1; roll <= faces && cell + roll <= boardSize; roll++) {
+                reverseCount[target(cell, roll) + 1]++;
+            }
+        }
+        for(int i = 1; i < reverseCount.length; i++) {
+            reverseCount[i] += reverseCount[i - 1];
+        }
+        int[] reverseEdges = new int[reverseCount[boardSize + 1]];
+        int[] fill = Arrays.copyOf(reverseCount, reverseCount.length);
+        for(int cell = 0; cell < boardSize; cell++) {
+            for(int roll = 1; roll <= faces && cell + roll <= boardSize; roll++) {
+                reverseEdges[fill[target(cell, roll)]++] = cell;
+            }
+        }
+
+        boolean[] reachable = new boolean[boardSize + 1];
+        int[] queue = new int[boardSize + 1];
+        int head = 0, tail = 0;
+        reachable[0] = true;
+        queue[tail++] = 0;
+        while(head < tail) {
+            int cell = queue[head++];
+            if(cell == boardSize) continue;
+            for(int roll = 1; roll <= faces && cell + roll <= boardSize; roll++) {
+                int next = target(cell, roll);
+                if(!reachable[next]) {
+                    reachable[next] = true;
+                    queue[tail++] = next;
+                }
+            }
+        }
+
+        boolean[] canFinish = new boolean[boardSize + 1];
+        head = 0;
+        tail = 0;
+        canFinish[boardSize] = true;
+        queue[tail++] = boardSize;
+        while(head < tail) {
+            int cell = queue[head++];
+            for(int i = reverseCount[cell]; i < reverseCount[cell + 1]; i++) {
+                int previous = reverseEdges[i];
+                if(!canFinish[previous]) {
+                    canFinish[previous] = true;
+                    queue[tail++] = previous;
+                }
+            }
+        }
+
+        int unreachable = 0;
+        int traps = 0;
+        for(int cell = 0; cell <= boardSize; cell++) {
+            // Entity start cells are never rested on, so they are not counted as unreachable
+            if(!reachable[cell] && landing[cell] == cell) unreachable++;
+            if(reachable[cell] && !canFinish[cell]) traps++;
+        }
+        report.setUnreachableCells(unreachable);
+        report.setTrapCells(traps);
+
+        if(!reachable[boardSize]) {
+            report.addError("Last cell " + boardSize + " cannot be reached from the start");
+        }
+        else if(traps > 0) {
+            report.addError(traps + " reachable cells can never reach the last cell");
+        }
+    }
+
+    private int target(int cell, int roll) {
+        return landing[cell + roll];
+    }
+
+    private boolean inRange(int cell) {
+        return cell >= 0 && cell <= boardSize;
+    }
+}
@@ -0,0 +1,261 @@
+package snake_and_ladder.java;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+// Fixed-width binary move record, 32 bytes:
+//   gameId(8) playerId(4) from(4) landing(4) to(4) entityStart(4, -1 = none) roll(2) flags(2)
+class MoveRecord {
+    public static final int SIZE = 32;
+
+    public static final int FLAG_VALID = 1;
+    public static final int FLAG_WIN = 1 << 1;
+    public static final int FLAG_EXTRA_TURN = 1 << 2;
+    public static final int FLAG_PENALTY = 1 << 3;
+    public static final int FLAG_SNAKE = 1 << 4;
+    public static final int FLAG_LADDER = 1 << 5;
+
+    public long gameId;
+    public int playerId;
+    public int from;
+    public int landing;
+    public int to;
+    public int entityStart;
+    public int roll;
+    public int flags;
+
+    public static void write(ByteBuffer out, long gameId, MoveEvent move) {
+        BoardEntity entity = move.getEntity();
+        int flags = 0;
+        if(move.isValid()) flags |= FLAG_VALID;
+        if(move.isWinningMove()) flags |= FLAG_WIN;
+        if(move.isExtraTurn()) flags |= FLAG_EXTRA_TURN;
+        if(move.isPenalty()) flags |= FLAG_PENALTY;
+        if(entity != null) flags |= entity.name().equals("SNAKE") ? FLAG_SNAKE : FLAG_LADDER;
+
+        out.putLong(gameId);
+        out.putInt(move.getPlayer().getPlayerId());
+        out.putInt(move.getFrom());
+        out.putInt(move.getLanding());
+        out.putInt(move.getTo());
+        out.putInt(entity != null ? entity.getStart() : -1);
+        out.putShort((short) move.getDiceValue());
+        out.putShort((short) flags);
+    }
+
+    // Reads the record at an absolute offset into this instance (no allocation per record)
+    public void read(ByteBuffer in, int offset) {
+        gameId = in.getLong(offset);
+        playerId = in.getInt(offset + 8);
+        from = in.getInt(offset + 12);
+        landing = in.getInt(offset + 16);
+        to = in.getInt(offset + 20);
+        entityStart = in.getInt(offset + 24);
+        roll = in.getShort(offset + 28);
+        flags = in.getShort(offset + 30);
+    }
+
+    public boolean has(int flag) {
+        return (flags & flag) != 0;
+    }
+}
+
+// Append-only, segmented move log.
+// Records from any number of games are collected in a direct ByteBuffer and written to the
+// current segment when the buffer fills up (or on flush / close). A segment holds a fixed
+// number of records, then the log rolls over to the next file.
+class GameEventLog implements AutoCloseable {
+    private static final int BATCH_RECORDS = 4096;
+    static final String SEGMENT_PREFIX = "moves-";
+    static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final long recordsPerSegment;
+    private final ByteBuffer batch;
+    private FileChannel segment;
+    private int segmentIndex;
+    private long segmentRecords;
+
+    public GameEventLog(Path directory, long recordsPerSegment) throws IOException {
+        this.directory = directory;
+        this.recordsPerSegment = recordsPerSegment;
+        this.batch = ByteBuffer.allocateDirect(BATCH_RECORDS * MoveRecord.SIZE);
+        Files.createDirectories(directory);
+
+        // Never append into an older segment - start after the highest one on disk, which is
+        // not the count of segments once older ones have been deleted
+        List<Path> existing = GameEventLogReader.segments(directory);
+        segmentIndex = existing.isEmpty() ? 0 : GameEventLogReader.segmentIndex(existing.get(existing.size() - 1)) + 1;
+        openSegment();
+    }
+
+    // Observer that logs every move of one game; attach with game.addObserver()
+    public IObserver observerFor(long gameId) {
+        return new IObserver() {
+            @Override
+            public void update(String msg) {
+                // Only moves are logged
+            }
+
+            @Override
+            public void onMove(MoveEvent move) {
+                append(gameId, move);
+            }
+        };
+    }
+
+    public synchronized void append(long gameId, MoveEvent move) {
+        MoveRecord.write(batch, gameId, move);
+        if(!batch.hasRemaining()) {
+            writeBatch();
+        }
+    }
+
+    public synchronized void flush() {
+        writeBatch();
+    }
+
+    private void writeBatch() {
+        batch.flip();
+        try {
+            while(batch.hasRemaining()) {
+                int records = (int) Math.min(batch.remaining() / MoveRecord.SIZE, recordsPerSegment - segmentRecords);
+                int limit = batch.limit();
+                batch.limit(batch.position() + records * MoveRecord.SIZE);
+                while(batch.hasRemaining()) {
+                    segment.write(batch);
+                }
+                batch.limit(limit);
+                segmentRecords += records;
+
+                if(segmentRecords == recordsPerSegment) {
+                    segment.close();
+                    segmentIndex++;
+                    openSegment();
+                }
+            }
+        } catch(IOException e) {
+            throw new IllegalStateException("Could not write move log segment " + segmentIndex, e);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private void openSegment() throws IOException {
+        Path file = directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, segmentIndex, SEGMENT_SUFFIX));
+        segment = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentRecords = segment.size() / MoveRecord.SIZE;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writeBatch();
+        segment.close();
+    }
+}
+
+// Replayed state of one game: where each player stands after a number of moves
+class ReplayState {
+    private final Map<Integer, Integer> positions = new LinkedHashMap<>();
+    private int movesApplied;
+    private int winnerId = -1;
+
+    public void apply(MoveRecord record) {
+        positions.put(record.playerId, record.to);
+        movesApplied++;
+        if(record.has(MoveRecord.FLAG_WIN)) {
+            winnerId = record.playerId;
+        }
+    }
+
+    public Map<Integer, Integer> getPositions() {
+        return Collections.unmodifiableMap(positions);
+    }
+
+    public int getMovesApplied() {
+        return movesApplied;
+    }
+
+    // Player id of the winner, or -1 if the game had not ended by then
+    public int getWinnerId() {
+        return winnerId;
+    }
+
+    public void display() {
+        System.out.println("\n=== Replay after " + movesApplied + " moves ===");
+        for(Map.Entry<Integer, Integer> entry : positions.entrySet()) {
+            System.out.println("Player " + entry.getKey() + ": " + entry.getValue());
+        }
+        if(winnerId >= 0) {
+            System.out.println("Winner: player " + winnerId);
+        }
+        System.out.println("=========================");
+    }
+}
+
+// Offline reader for a move log directory: streams the segments through read-only mappings
+class GameEventLogReader {
+    private final Path directory;
+
+    public GameEventLogReader(Path directory) {
+        this.directory = directory;
+    }
+
+    public interface RecordVisitor {
+        // Return false to stop reading
+        boolean visit(MoveRecord record);
+    }
+
+    // Visits every complete record in log order; the same MoveRecord instance is reused
+    public void forEach(RecordVisitor visitor) throws IOException {
+        MoveRecord record = new MoveRecord();
+        for(Path file : segments(directory)) {
+            try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long records = channel.size() / MoveRecord.SIZE;  // ignores a torn trailing record
+                if(records == 0) continue;
+                MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, records * MoveRecord.SIZE);
+                for(int offset = 0; offset < records * MoveRecord.SIZE; offset += MoveRecord.SIZE) {
+                    record.read(in, offset);
+                    if(!visitor.visit(record)) return;
+                }
+            }
+        }
+    }
+
+    // State of a game after its first `moves` moves (Integer.MAX_VALUE for the final state)
+    public ReplayState replay(long gameId, int moves) throws IOException {
+        ReplayState state = new ReplayState();
+        if(moves <= 0) return state;  // initial state
+        forEach(record -> {
+            if(record.gameId == gameId) {
+                state.apply(record);
+            }
+            return state.getMovesApplied() < moves;
+        });
+        return state;
+    }
+
+    static List<Path> segments(Path directory) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if(!Files.isDirectory(directory)) return files;
+        try(DirectoryStream<Path> stream = Files.newDirectoryStream(directory, GameEventLog.SEGMENT_PREFIX + "*" + GameEventLog.SEGMENT_SUFFIX)) {
+            for(Path file : stream) {
+                files.add(file);
+            }
+        }
+        Collections.sort(files);  // zero-padded indexes sort in log order
+        return files;
+    }
+
+    static int segmentIndex(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring(GameEventLog.SEGMENT_PREFIX.length(), name.length() - GameEventLog.SEGMENT_SUFFIX.length()));
+    }
+}
@@ -0,0 +1,271 @@
+package snake_and_ladder.java;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.CRC32;
+
+// Growable byte buffer with LEB128 varint encoding
+class VarintWriter {
+    private byte[] buf = new byte[256];
+    private int size;
+
+    public void writeByte(int b) {
+        ensure(1);
+        buf[size++] = (byte) b;
+    }
+
+    public void writeVarint(long value) {
+        ensure(10);
+        while((value & ~0x7FL) != 0) {
+            buf[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf[size++] = (byte) value;
+    }
+
+    public void writeInt(int value) {
+        ensure(4);
+        for(int i = 3; i >= 0; i--) {
+            buf[size++] = (byte) (value >>> (i * 8));
+        }
+    }
+
+    public void writeLong(long value) {
+        ensure(8);
+        for(int i = 7; i >= 0; i--) {
+            buf[size++] = (byte) (value >>> (i * 8));
+        }
+    }
+
+    public void writeString(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buf, size, bytes.length);
+        size += bytes.length;
+    }
+
+    public void writeBytes(VarintWriter other) {
+        ensure(other.size);
+        System.arraycopy(other.buf, 0, buf, size, other.size);
+        size += other.size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void reset() {
+        size = 0;
+    }
+
+    public void updateChecksum(CRC32 crc) {
+        crc.update(buf, 0, size);
+    }
+
+    public void copyTo(ByteBuffer out) {
+        out.put(buf, 0, size);
+    }
+
+    private void ensure(int extra) {
+        if(size + extra > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + extra));
+        }
+    }
+
+    public static long readVarint(ByteBuffer in) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while((b & 0x80) != 0);
+        return value;
+    }
+
+    public static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[(int) readVarint(in)];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
+
+// Binary snapshot of one game: board layout, dice state, players in turn order.
+// Layout (varints unless noted):
+//   version(byte) gameOver(byte) boardSide
+//   entityCount { kind(byte 0=snake 1=ladder) start end }
+//   faces seeded(byte) [seed(8 bytes) rollCount]
+//   playerCount { playerId accountId name(len + UTF-8) position score }
+// Observers and rules are not stored - the restored game uses the standard rules.
+class GameSnapshotCodec {
+    private static final int VERSION = 2;
+    private static final int SNAKE = 0;
+    private static final int LADDER = 1;
+
+    public static void encode(SnakeAndLadderGame game, VarintWriter out) {
+        Board board = game.getBoard();
+        out.writeByte(VERSION);
+        out.writeByte(game.isGameOver() ? 1 : 0);
+        out.writeVarint(Math.round(Math.sqrt(board.getBoardSize())));
+
+        List<BoardEntity> entities = board.getSnakesAndLadders();
+        out.writeVarint(entities.size());
+        for(BoardEntity entity : entities) {
+            out.writeByte(entity.name().equals("SNAKE") ? SNAKE : LADDER);
+            out.writeVarint(entity.getStart());
+            out.writeVarint(entity.getEnd());
+        }
+
+        Dice dice = game.getDice();
+        out.writeVarint(dice.getFaces());
+        if(dice instanceof SeededDice) {
+            SeededDice seeded = (SeededDice) dice;
+            out.writeByte(1);
+            out.writeLong(seeded.getSeed());
+            out.writeVarint(seeded.getRollCount());
+        }
+        else {
+            out.writeByte(0);  // Math.random dice have no state to keep
+        }
+
+        List<SnakeAndLadderPlayer> players = game.getPlayers();
+        out.writeVarint(players.size());
+        for(SnakeAndLadderPlayer player : players) {
+            out.writeVarint(player.getPlayerId());
+            out.writeVarint(player.getAccountId());
+            out.writeString(player.getName());
+            out.writeVarint(player.getPosition());
+            out.writeVarint(player.getScore());
+        }
+    }
+
+    public static SnakeAndLadderGame decode(ByteBuffer in) {
+        int version = in.get();
+        if(version != VERSION) {
+            throw new IllegalStateException("Unsupported snapshot version " + version);
+        }
+        boolean gameOver = in.get() == 1;
+
+        Board board = new Board((int) VarintWriter.readVarint(in));
+        int entityCount = (int) VarintWriter.readVarint(in);
+        for(int i = 0; i < entityCount; i++) {
+            int kind = in.get();
+            int start = (int) VarintWriter.readVarint(in);
+            int end = (int) VarintWriter.readVarint(in);
+            board.addBoardEntity(kind == SNAKE ? new Snake(start, end) : new Ladder(start, end));
+        }
+
+        int faces = (int) VarintWriter.readVarint(in);
+        Dice dice;
+        if(in.get() == 1) {
+            long seed = in.getLong();
+            long rollCount = VarintWriter.readVarint(in);
+            dice = SeededDice.restore(faces, seed, rollCount);
+        }
+        else {
+            dice = new Dice(faces);
+        }
+
+        SnakeAndLadderGame game = new SnakeAndLadderGame(board.compile(), dice);
+        int playerCount = (int) VarintWriter.readVarint(in);
+        for(int i = 0; i < playerCount; i++) {
+            int playerId = (int) VarintWriter.readVarint(in);
+            long accountId = VarintWriter.readVarint(in);
+            String name = VarintWriter.readString(in);
+            int position = (int) VarintWriter.readVarint(in);
+            int score = (int) VarintWriter.readVarint(in);
+            game.addPlayer(new SnakeAndLadderPlayer(playerId, accountId, name, position, score));
+        }
+        game.setGameOver(gameOver);
+        return game;
+    }
+}
+
+// Append-only snapshot file for many games.
+// Each record is: gameId (varint), payload length (varint), crc32 of the payload (4 bytes),
+// payload. A batch is encoded into one buffer, then written through a single memory-mapped
+// region at the end of the file. Restoring maps the whole file and decodes it in place; a
+// later record for the same game id replaces an earlier one. A record that is cut short or
+// fails its checksum (a crash mid-write, or a zero-filled tail) ends the file: it and
+// everything after it are truncated, so the next append follows the last good record.
+class GameSnapshotStore {
+    private final Path file;
+
+    public GameSnapshotStore(Path file) {
+        this.file = file;
+    }
+
+    public void append(long gameId, SnakeAndLadderGame game) throws IOException {
+        appendAll(Collections.singletonMap(gameId, game));
+    }
+
+    public void appendAll(Map<Long, SnakeAndLadderGame> games) throws IOException {
+        VarintWriter batch = new VarintWriter();
+        VarintWriter record = new VarintWriter();
+        for(Map.Entry<Long, SnakeAndLadderGame> entry : games.entrySet()) {
+            record.reset();
+            GameSnapshotCodec.encode(entry.getValue(), record);
+            CRC32 crc = new CRC32();
+            record.updateChecksum(crc);
+            batch.writeVarint(entry.getKey());
+            batch.writeVarint(record.size());
+            batch.writeInt((int) crc.getValue());
+            batch.writeBytes(record);
+        }
+        if(batch.size() == 0) return;
+
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_WRITE, channel.size(), batch.size());
+            batch.copyTo(region);
+            region.force();
+        }
+    }
+
+    public Map<Long, SnakeAndLadderGame> restoreAll() throws IOException {
+        Map<Long, SnakeAndLadderGame> games = new LinkedHashMap<>();
+        if(!file.toFile().exists()) return games;
+
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            CRC32 crc = new CRC32();
+            int validEnd = 0;
+            while(in.hasRemaining()) {
+                long gameId;
+                int length;
+                int checksum;
+                try {
+                    gameId = VarintWriter.readVarint(in);
+                    length = (int) VarintWriter.readVarint(in);
+                    checksum = in.getInt();
+                }
+                catch(BufferUnderflowException e) {
+                    break;
+                }
+                if(length <= 0 || length > in.remaining()) break;
+
+                ByteBuffer payload = in.slice();
+                payload.limit(length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if((int) crc.getValue() != checksum) break;
+
+                games.put(gameId, GameSnapshotCodec.decode(payload));
+                in.position(in.position() + length);
+                validEnd = in.position();
+            }
+            if(validEnd < channel.size()) {
+                channel.truncate(validEnd);
+            }
+        }
+        return games;
+    }
+}
@@ -0,0 +1,156 @@
+package snake_and_ladder.java;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Immutable (score, account) pair as stored in the ranking; highest score first, ties by account id
+class LeaderboardEntry implements Comparable<LeaderboardEntry> {
+    private final long score;
+    private final long accountId;
+    private final String name;
+
+    public LeaderboardEntry(long score, long accountId, String name) {
+        this.score = score;
+        this.accountId = accountId;
+        this.name = name;
+    }
+
+    public long getScore() {
+        return score;
+    }
+
+    public long getAccountId() {
+        return accountId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int compareTo(LeaderboardEntry other) {
+        int byScore = Long.compare(other.score, score);
+        return byScore != 0 ? byScore : Long.compare(accountId, other.accountId);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(!(o instanceof LeaderboardEntry)) return false;
+        LeaderboardEntry other = (LeaderboardEntry) o;
+        return score == other.score && accountId == other.accountId;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(score) * 31 + Long.hashCode(accountId);
+    }
+}
+
+// Running total for one player account.
+// `score` is the true total; `rankedScore` is the value currently published to the ranking.
+class PlayerStanding {
+    final long accountId;
+    final String name;
+    final AtomicLong score = new AtomicLong();
+    final AtomicLong rankedScore = new AtomicLong();
+
+    PlayerStanding(long accountId, String name) {
+        this.accountId = accountId;
+        this.name = name;
+    }
+}
+
+// Live leaderboard fed by win events from any number of concurrent games.
+// Keyed by the player's account id, not the per-game seat id, so one person's wins add up
+// across games and different people in the same seat stay apart.
+// Totals live in a ConcurrentHashMap of atomic counters, and the ranking is a concurrent
+// skip-list updated incrementally on every win, so top-K is a walk from the head.
+// Nothing takes a lock: a writer that publishes a new score adds its entry and then removes
+// the old one; if two writers for the same player race, a superseded entry can linger
+// briefly, and readers skip (and clean up) any entry that no longer matches the published score.
+class Leaderboard implements IObserver {
+    private final ConcurrentHashMap<Long, PlayerStanding> standings = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<LeaderboardEntry> ranking = new ConcurrentSkipListSet<>();
+    private final LongAdder totalPoints = new LongAdder();
+
+    @Override
+    public void update(String msg) {
+        // Only wins count
+    }
+
+    @Override
+    public void onMove(MoveEvent move) {
+        if(move.isWinningMove()) {
+            recordWin(move.getPlayer().getAccountId(), move.getPlayer().getName());
+        }
+    }
+
+    public void recordWin(long accountId, String name) {
+        addPoints(accountId, name, 1);
+    }
+
+    public void addPoints(long accountId, String name, long points) {
+        PlayerStanding standing = standings.computeIfAbsent(accountId, id -> new PlayerStanding(id, name));
+        long score = standing.score.addAndGet(points);
+        totalPoints.add(points);
+
+        // Publish only if no other writer has already published a higher total
+        long published = standing.rankedScore.get();
+        while(published < score) {
+            if(standing.rankedScore.compareAndSet(published, score)) {
+                ranking.add(new LeaderboardEntry(score, accountId, standing.name));
+                if(published > 0) {
+                    ranking.remove(new LeaderboardEntry(published, accountId, standing.name));
+                }
+                return;
+            }
+            published = standing.rankedScore.get();
+        }
+    }
+
+    // Highest `k` players, best first
+    public List<LeaderboardEntry> topK(int k) {
+        List<LeaderboardEntry> top = new ArrayList<>(Math.min(k, 1024));
+        for(LeaderboardEntry entry : ranking) {
+            if(top.size() == k) break;
+            if(isCurrent(entry)) {
+                top.add(entry);
+            }
+            else {
+                ranking.remove(entry);
+            }
+        }
+        return top;
+    }
+
+    public long getScore(long accountId) {
+        PlayerStanding standing = standings.get(accountId);
+        return standing == null ? 0 : standing.score.get();
+    }
+
+    public int getPlayerCount() {
+        return standings.size();
+    }
+
+    public long getTotalPoints() {
+        return totalPoints.sum();
+    }
+
+    private boolean isCurrent(LeaderboardEntry entry) {
+        PlayerStanding standing = standings.get(entry.getAccountId());
+        return standing != null && standing.rankedScore.get() == entry.getScore();
+    }
+
+    public void display(int k) {
+        System.out.println("\n=== Leaderboard (top " + k + ") ===");
+        int rank = 1;
+        for(LeaderboardEntry entry : topK(k)) {
+            System.out.println(rank++ + ". " + entry.getName() + " (account " + entry.getAccountId() + "): " + entry.getScore());
+        }
+        System.out.println("Players: " + getPlayerCount() + ", points awarded: " + getTotalPoints());
+        System.out.println("================================");
+    }
+}
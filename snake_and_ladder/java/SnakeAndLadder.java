@@ -4,10 +4,40 @@ package snake_and_ladder.java;
 
 import java.util.*;
 import java.util.Scanner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ThreadLocalRandom;
 
 // Observer Pattern
 interface IObserver {
     void update(String msg);
+    
+    // Structured move notification. Observers that only want text get the legacy messages,
+    // formatted here - so nothing is formatted for observers that override this.
+    default void onMove(MoveEvent move) {
+        for(String msg : move.describe()) {
+            update(msg);
+        }
+    }
+}
+
+// Anything a game publishes to its observers
+interface GameEvent {
+    void deliverTo(IObserver observer);
+}
+
+// Plain text event ("Game started", ...)
+class MessageEvent implements GameEvent {
+    private final String msg;
+    
+    public MessageEvent(String msg) {
+        this.msg = msg;
+    }
+    
+    @Override
+    public void deliverTo(IObserver observer) {
+        observer.update(msg);
+    }
 }
 
 // Sample observer implementation
@@ -28,6 +58,87 @@ class Dice {
     public int roll() {
         return (int)(Math.random() * faces) + 1;
     }
+
+    public int getFaces() {
+        return faces;
+    }
+    
+    public void rollBatch(int[] out) {
+        for(int i = 0; i < out.length; i++) {
+            out[i] = roll();
+        }
+    }
+    
+    // Dice to use for one game of a batch. Plain dice share Math.random, so any game gets this dice.
+    public Dice forGame(long gameIndex) {
+        return this;
+    }
+}
+
+// Seeded dice backed by SplittableRandom.
+// Not shared between threads: each thread / game gets its own instance through split() or
+// forGame(), so there is no contention on a global generator and a given seed always replays
+// the same rolls, whatever the number of threads.
+class SeededDice extends Dice {
+    private final long seed;
+    private final SplittableRandom random;
+    private long rollCount;  // rolls taken so far, enough to restore the generator from the seed
+    
+    public SeededDice(int faces, long seed) {
+        super(faces);
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+    }
+    
+    // Dice in the state it had after `rollCount` rolls from `seed`
+    public static SeededDice restore(int faces, long seed, long rollCount) {
+        SeededDice dice = new SeededDice(faces, seed);
+        for(long i = 0; i < rollCount; i++) {
+            dice.roll();
+        }
+        return dice;
+    }
+    
+    @Override
+    public int roll() {
+        rollCount++;
+        return random.nextInt(getFaces()) + 1;
+    }
+    
+    @Override
+    public void rollBatch(int[] out) {
+        int faces = getFaces();
+        for(int i = 0; i < out.length; i++) {
+            out[i] = random.nextInt(faces) + 1;
+        }
+        rollCount += out.length;
+    }
+    
+    // Independent generator seeded from this one's stream
+    public SeededDice split() {
+        return new SeededDice(getFaces(), random.nextLong());
+    }
+    
+    // Independent stream determined only by (seed, gameIndex), not by which thread asks for it
+    @Override
+    public Dice forGame(long gameIndex) {
+        return new SeededDice(getFaces(), mix64(seed ^ mix64(gameIndex + 1)));
+    }
+    
+    public long getSeed() {
+        return seed;
+    }
+    
+    public long getRollCount() {
+        return rollCount;
+    }
+    
+    // SplitMix64 finaliser - spreads consecutive game indexes over the whole seed space
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
 }
 
 // Base class for Snake and Ladder (both have start and end positions)
@@ -97,11 +208,21 @@ class Board {
     private int size;
     private List<BoardEntity> snakesAndLadders;
     private Map<Integer, BoardEntity> boardEntities;
+    private List<BoardEntity> rejectedEntities;  // dropped because their start cell was taken
     
     public Board(int s) {
         size = s * s;  // m*m board
         snakesAndLadders = new ArrayList<>();
         boardEntities = new HashMap<>();
+        rejectedEntities = new ArrayList<>();
+    }
+    
+    // Copy of another board's layout, used by CompiledBoard
+    protected Board(Board other) {
+        size = other.size;
+        snakesAndLadders = new ArrayList<>(other.snakesAndLadders);
+        boardEntities = new HashMap<>(other.boardEntities);
+        rejectedEntities = new ArrayList<>(other.rejectedEntities);
     }
     
     public boolean canAddEntity(int position) {
@@ -113,6 +234,13 @@ class Board {
             snakesAndLadders.add(boardEntity);
             boardEntities.put(boardEntity.getStart(), boardEntity);
         }
+        else {
+            rejectedEntities.add(boardEntity);
+        }
+    }
+    
+    public List<BoardEntity> getRejectedEntities() {
+        return Collections.unmodifiableList(rejectedEntities);
     }
     
     public void setupBoard(BoardSetupStrategy strategy) {
@@ -123,10 +251,29 @@ class Board {
         return boardEntities.get(position);
     }
     
-    public int getBoardSize() { 
-        return size;
+    // Where a token landing on this cell ends up after taking its snake / ladder
+    public int resolvePosition(int position) {
+        BoardEntity entity = boardEntities.get(position);
+        return entity != null ? entity.getEnd() : position;
+    }
+    
+    public BoardValidationReport validate(int diceFaces) {
+        return new BoardValidator(this, diceFaces).validate();
+    }
+    
+    // Immutable snapshot of this board for hot move paths
+    public CompiledBoard compile() {
+        return new CompiledBoard(this);
     }
     
+    public int getBoardSize() {
+        return size;
+    }
+
+    public List<BoardEntity> getSnakesAndLadders() {
+        return Collections.unmodifiableList(snakesAndLadders);
+    }
+
     public void display() {
         System.out.println("\n=== Board Configuration ===");
         System.out.println("Board Size: " + size + " cells");
@@ -155,11 +302,161 @@ class Board {
     }
 }
 
+// Compiled, immutable board.
+// Entities are flattened into arrays indexed by cell, so a move costs one array load
+// instead of boxing the position and hashing it into the entity map.
+// Same semantics as Board: a token takes only the jump of the cell it lands on, even if
+// that jump ends on another snake or ladder.
+// Move tables are cached here per rule set, so every game on this board shares one.
+class CompiledBoard extends Board {
+    private final int[] jumpTo;
+    private final BoardEntity[] entityAt;
+    private final Map<String, MoveTable> moveTables = new ConcurrentHashMap<>();
+    
+    public CompiledBoard(Board source) {
+        super(source);
+        int size = getBoardSize();
+        jumpTo = new int[size + 1];
+        entityAt = new BoardEntity[size + 1];
+        
+        for(int cell = 0; cell <= size; cell++) {
+            jumpTo[cell] = cell;
+        }
+        for(BoardEntity entity : getSnakesAndLadders()) {
+            int start = entity.getStart();
+            int end = entity.getEnd();
+            if(start < 1 || start >= size || end < 1 || end > size) {
+                throw new IllegalArgumentException(entity.name() + " " + start + " -> " + end + " is off the board (1.." + size + ")");
+            }
+            entityAt[start] = entity;
+            jumpTo[start] = end;
+        }
+    }
+    
+    @Override
+    public boolean canAddEntity(int position) {
+        return false;
+    }
+    
+    @Override
+    public void addBoardEntity(BoardEntity boardEntity) {
+        throw new UnsupportedOperationException("Compiled board is immutable");
+    }
+    
+    @Override
+    public void setupBoard(BoardSetupStrategy strategy) {
+        throw new UnsupportedOperationException("Compiled board is immutable");
+    }
+    
+    @Override
+    public BoardEntity getEntity(int position) {
+        if(position < 0 || position >= entityAt.length) return null;
+        return entityAt[position];
+    }
+    
+    @Override
+    public int resolvePosition(int position) {
+        return jumpTo[position];
+    }
+    
+    @Override
+    public CompiledBoard compile() {
+        return this;
+    }
+    
+    // The table of `rules` on this board, built on first use and shared afterwards
+    public MoveTable moveTable(SnakeAndLadderRules rules, int maxRoll) {
+        return moveTables.computeIfAbsent(rules.getRulesKey() + "/" + maxRoll, key -> new MoveTable(rules, this, maxRoll));
+    }
+}
+
 // Strategy Pattern for Board Setup
 interface BoardSetupStrategy {
     void setupBoard(Board board);
 }
 
+// Samples free cells of a board without replacement.
+// Partial Fisher-Yates shuffle over the free cells of a range: every draw swaps a random
+// remaining cell to the end and shrinks the pool, so placing k entities costs O(range + k)
+// instead of retrying random cells until a free one turns up.
+class FreeCellSampler {
+    private final Board board;
+    private final int[] cells;
+    private int remaining;
+    
+    // Free cells in [from, to]
+    public FreeCellSampler(Board board, int from, int to) {
+        this.board = board;
+        this.cells = new int[Math.max(0, to - from + 1)];
+        for(int cell = from; cell <= to; cell++) {
+            if(board.canAddEntity(cell)) {
+                cells[remaining++] = cell;
+            }
+        }
+    }
+    
+    public int remaining() {
+        return remaining;
+    }
+    
+    // Next free cell, or -1 once the range is used up.
+    // Cells taken through another sampler since construction are skipped - each is
+    // skipped at most once, so the total work stays linear.
+    public int next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while(remaining > 0) {
+            int pick = random.nextInt(remaining);
+            int cell = cells[pick];
+            cells[pick] = cells[--remaining];
+            if(board.canAddEntity(cell)) {
+                return cell;
+            }
+        }
+        return -1;
+    }
+}
+
+// Builds randomly placed snakes and ladders from samplers over their valid start ranges
+class RandomEntityPlacer {
+    private final Board board;
+    private final int boardSize;
+    private final FreeCellSampler snakeStarts;   // snakes start in [10, boardSize - 1]
+    private final FreeCellSampler ladderStarts;  // ladders start in [1, boardSize - 10]
+    
+    public RandomEntityPlacer(Board board) {
+        this.board = board;
+        this.boardSize = board.getBoardSize();
+        this.snakeStarts = new FreeCellSampler(board, 10, boardSize - 1);
+        this.ladderStarts = new FreeCellSampler(board, 1, Math.min(boardSize - 10, boardSize - 2));
+    }
+    
+    public int availableSnakeStarts() {
+        return snakeStarts.remaining();
+    }
+    
+    public int availableLadderStarts() {
+        return ladderStarts.remaining();
+    }
+    
+    // Returns false when no free snake start is left
+    public boolean placeSnake() {
+        int start = snakeStarts.next();
+        if(start < 0) return false;
+        int end = ThreadLocalRandom.current().nextInt(1, start);
+        board.addBoardEntity(new Snake(start, end));
+        return true;
+    }
+    
+    // Returns false when no free ladder start is left. Ladders never end on the last cell.
+    public boolean placeLadder() {
+        int start = ladderStarts.next();
+        if(start < 0) return false;
+        int end = ThreadLocalRandom.current().nextInt(start + 1, boardSize);
+        board.addBoardEntity(new Ladder(start, end));
+        return true;
+    }
+}
+
 // Random Strategy with difficulty levels
 class RandomBoardSetupStrategy implements BoardSetupStrategy {
     public enum Difficulty {
@@ -168,41 +465,24 @@ class RandomBoardSetupStrategy implements BoardSetupStrategy {
         HARD     // More snakes, fewer ladders
     }
     
+    private static final int STANDARD_DICE_FACES = 6;
+    
     private Difficulty difficulty;
+    private double targetExpectedTurns;  // <= 0 means no target, take the first layout
+    private int candidates;
     
     private void setupWithProbability(Board board, double snakeProbability) {
         int boardSize = board.getBoardSize();
         int totalEntities = boardSize / 10; // Roughly 10% of board has entities
+        RandomEntityPlacer placer = new RandomEntityPlacer(board);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
         
         for(int i = 0; i < totalEntities; i++) {
-            double prob = Math.random();
-            
-            if(prob < snakeProbability) {
-                // Add snake
-                int attempts = 0;
-                while(attempts < 50) {
-                    int start = (int)(Math.random() * (boardSize - 10)) + 10;
-                    int end = (int)(Math.random() * (start - 1)) + 1;
-                    
-                    if(board.canAddEntity(start)) {
-                        board.addBoardEntity(new Snake(start, end));
-                        break;
-                    }
-                    attempts++;
-                }
+            // If one kind has run out of free cells the board simply gets fewer of it
+            if(random.nextDouble() < snakeProbability) {
+                placer.placeSnake();
             } else {
-                // Add ladder
-                int attempts = 0;
-                while(attempts < 50) {
-                    int start = (int)(Math.random() * (boardSize - 10)) + 1;
-                    int end = (int)(Math.random() * (boardSize - start)) + start + 1;
-                    
-                    if(board.canAddEntity(start) && end < boardSize) {
-                        board.addBoardEntity(new Ladder(start, end));
-                        break;
-                    }
-                    attempts++;
-                }
+                placer.placeLadder();
             }
         }
     }
@@ -211,18 +491,56 @@ class RandomBoardSetupStrategy implements BoardSetupStrategy {
         difficulty = d;
     }
     
-    @Override
-    public void setupBoard(Board board) {
+    // Generates `candidates` layouts and keeps the one whose exact expected game length
+    // (one player, 6-faced dice) is closest to targetExpectedTurns
+    public RandomBoardSetupStrategy(Difficulty d, double targetExpectedTurns, int candidates) {
+        difficulty = d;
+        this.targetExpectedTurns = targetExpectedTurns;
+        this.candidates = candidates;
+    }
+    
+    private double snakeProbability() {
         switch(difficulty) {
             case EASY:
-                setupWithProbability(board, 0.3);  // 30% snakes, 70% ladders
-                break;
-            case MEDIUM:
-                setupWithProbability(board, 0.5);  // 50% snakes, 50% ladders
-                break;
+                return 0.3;  // 30% snakes, 70% ladders
             case HARD:
-                setupWithProbability(board, 0.7);  // 70% snakes, 30% ladders
-                break;
+                return 0.7;  // 70% snakes, 30% ladders
+            case MEDIUM:
+            default:
+                return 0.5;  // 50% snakes, 50% ladders
+        }
+    }
+    
+    @Override
+    public void setupBoard(Board board) {
+        if(targetExpectedTurns <= 0) {
+            setupWithProbability(board, snakeProbability());
+            return;
+        }
+        
+        int side = (int) Math.round(Math.sqrt(board.getBoardSize()));
+        Board best = null;
+        double bestDistance = Double.MAX_VALUE;
+        for(int i = 0; i < candidates; i++) {
+            Board candidate = new Board(side);
+            setupWithProbability(candidate, snakeProbability());
+            
+            double distance;
+            try {
+                distance = Math.abs(new BoardMarkovSolver(candidate, STANDARD_DICE_FACES).getExpectedTurns() - targetExpectedTurns);
+            } catch(IllegalStateException e) {
+                continue;  // last cell unreachable, never a good candidate
+            }
+            if(distance < bestDistance) {
+                bestDistance = distance;
+                best = candidate;
+            }
+        }
+        
+        if(best != null) {
+            for(BoardEntity entity : best.getSnakesAndLadders()) {
+                board.addBoardEntity(entity);
+            }
         }
     }
 }
@@ -266,44 +584,35 @@ class CustomCountBoardSetupStrategy implements BoardSetupStrategy {
     public void setupBoard(Board board) {
         if(randomPositions) {
             // Random placement with user-defined counts
-            int boardSize = board.getBoardSize();
+            RandomEntityPlacer placer = new RandomEntityPlacer(board);
+            if(numSnakes > placer.availableSnakeStarts() || numLadders > placer.availableLadderStarts()
+                    || numSnakes + numLadders > board.getBoardSize() - 1 - board.getSnakesAndLadders().size()) {
+                throw new IllegalArgumentException("Cannot place " + numSnakes + " snakes and " + numLadders
+                    + " ladders on a board of " + board.getBoardSize() + " cells");
+            }
             
             // Add snakes
-            int snakesAdded = 0;
-            while(snakesAdded < numSnakes) {
-                int start = (int)(Math.random() * (boardSize - 10)) + 10;
-                int end = (int)(Math.random() * (start - 1)) + 1;
-                
-                if(board.canAddEntity(start)) {
-                    board.addBoardEntity(new Snake(start, end));
-                    snakesAdded++;
+            for(int i = 0; i < numSnakes; i++) {
+                if(!placer.placeSnake()) {
+                    throw new IllegalStateException("Ran out of free cells after " + i + " snakes");
                 }
             }
             
             // Add ladders
-            int laddersAdded = 0;
-            while(laddersAdded < numLadders) {
-                int start = (int)(Math.random() * (boardSize - 10)) + 1;
-                int end = (int)(Math.random() * (boardSize - start)) + start + 1;
-                
-                if(board.canAddEntity(start) && end < boardSize) {
-                    board.addBoardEntity(new Ladder(start, end));
-                    laddersAdded++;
+            for(int i = 0; i < numLadders; i++) {
+                if(!placer.placeLadder()) {
+                    throw new IllegalStateException("Ran out of free cells after " + i + " ladders");
                 }
             }
         } 
         else {
             // User-defined positions
             for(Pair<Integer, Integer> pos : snakePositions) {
-                if(board.canAddEntity(pos.first)) {
-                    board.addBoardEntity(new Snake(pos.first, pos.second));
-                }
+                board.addBoardEntity(new Snake(pos.first, pos.second));  // duplicates are recorded as rejected
             }
             
             for(Pair<Integer, Integer> pos : ladderPositions) {
-                if(board.canAddEntity(pos.first)) {
-                    board.addBoardEntity(new Ladder(pos.first, pos.second));
-                }
+                board.addBoardEntity(new Ladder(pos.first, pos.second));  // duplicates are recorded as rejected
             }
         }
     }
@@ -347,20 +656,41 @@ class StandardBoardSetupStrategy implements BoardSetupStrategy {
 }
 
 // Player class
+// playerId is the seat in one game (1..n); accountId identifies the person across games.
+// Players created without an account get a fresh one, so they are never merged with others.
 class SnakeAndLadderPlayer {
+    private static final AtomicLong nextGuestAccount = new AtomicLong(1L << 62);
+    
     private int playerId;
+    private long accountId;
     private String name;
     private int position;
     private int score;
     
     public SnakeAndLadderPlayer(int playerId, String n) {
+        this(playerId, nextGuestAccount.getAndIncrement(), n);
+    }
+    
+    public SnakeAndLadderPlayer(int playerId, long accountId, String n) {
+        this(playerId, accountId, n, 0, 0);
+    }
+    
+    // Player restored from a snapshot
+    public SnakeAndLadderPlayer(int playerId, long accountId, String n, int position, int score) {
         this.playerId = playerId;
+        this.accountId = accountId;
         name = n;
-        position = 0;
-        score = 0;
+        this.position = position;
+        this.score = score;
     }
     
     // Getters and Setters
+    public int getPlayerId() {
+        return playerId;
+    }
+    public long getAccountId() {
+        return accountId;
+    }
     public String getName() { 
         return name;
     }
@@ -383,6 +713,47 @@ interface SnakeAndLadderRules {
     boolean isValidMove(int currentPos, int diceValue, int boardSize);
     int calculateNewPosition(int currentPos, int diceValue, Board board);
     boolean checkWinCondition(int position, int boardSize);
+    
+    // Cell a valid roll reaches before any snake / ladder
+    default int landingCell(int currentPos, int diceValue, int boardSize) {
+        return currentPos + diceValue;
+    }
+    
+    // Number of dice rolled and summed per turn
+    default int getDiceCount() {
+        return 1;
+    }
+    
+    // Whether the player rolls again after this roll (maxRoll = every die on its top face)
+    default boolean grantsExtraTurn(int diceValue, int maxRoll) {
+        return false;
+    }
+    
+    // Extra-turn rolls in a row that cancel the whole turn (0 = no penalty)
+    default int getExtraTurnPenaltyStreak() {
+        return 0;
+    }
+    
+    // Identifies the move behaviour for MoveTable sharing: two rule sets with the same key
+    // must move tokens the same way. Rules with parameters include them in the key.
+    default String getRulesKey() {
+        return getClass().getName();
+    }
+    
+    // Per-board (position, roll) -> next position table, built once when a game starts
+    default MoveTable compile(Board board, int maxRoll) {
+        return compile(this, board, maxRoll);
+    }
+    
+    // Builds the table for a whole decorator stack; decorators pass this down unchanged, so
+    // the innermost rules decide how the table is built and `outermost` decides every move.
+    // Tables on a CompiledBoard are shared by all games on it.
+    default MoveTable compile(SnakeAndLadderRules outermost, Board board, int maxRoll) {
+        if(board instanceof CompiledBoard) {
+            return ((CompiledBoard) board).moveTable(outermost, maxRoll);
+        }
+        return new MoveTable(outermost, board, maxRoll);
+    }
 }
 
 // Standard rules
@@ -394,13 +765,7 @@ class StandardSnakeAndLadderRules implements SnakeAndLadderRules {
     
     @Override
     public int calculateNewPosition(int currentPos, int diceValue, Board board) {
-        int newPos = currentPos + diceValue;
-        BoardEntity entity = board.getEntity(newPos);
-        
-        if(entity != null) {
-            return entity.getEnd();
-        }
-        return newPos;
+        return board.resolvePosition(currentPos + diceValue);
     }
     
     @Override
@@ -409,6 +774,137 @@ class StandardSnakeAndLadderRules implements SnakeAndLadderRules {
     }
 }
 
+// Precomputed transitions of a rule set on one board.
+// Whatever the rule variant, a move is one lookup: next(position, roll), -1 for a lost roll.
+class MoveTable {
+    private final int stride;
+    private final int[] landing;
+    private final int[] next;
+    
+    public MoveTable(SnakeAndLadderRules rules, Board board, int maxRoll) {
+        int boardSize = board.getBoardSize();
+        stride = maxRoll + 1;
+        landing = new int[(boardSize + 1) * stride];
+        next = new int[(boardSize + 1) * stride];
+        
+        for(int pos = 0; pos <= boardSize; pos++) {
+            for(int roll = 1; roll <= maxRoll; roll++) {
+                int index = pos * stride + roll;
+                if(rules.isValidMove(pos, roll, boardSize)) {
+                    landing[index] = rules.landingCell(pos, roll, boardSize);
+                    next[index] = rules.calculateNewPosition(pos, roll, board);
+                }
+                else {
+                    landing[index] = -1;
+                    next[index] = -1;
+                }
+            }
+        }
+    }
+    
+    public int next(int position, int roll) {
+        return next[position * stride + roll];
+    }
+    
+    public int landing(int position, int roll) {
+        return landing[position * stride + roll];
+    }
+}
+
+// Outcome of one turn: who rolled what, where the token landed and where it ended up
+class MoveEvent implements GameEvent {
+    private final SnakeAndLadderPlayer player;
+    private final int diceValue;
+    private final int from;
+    private final int landing;        // cell reached by the roll, before any snake / ladder
+    private final BoardEntity entity; // snake / ladder taken at the landing cell, or null
+    private final int to;
+    private final boolean valid;      // false when the roll overshoots the last cell
+    private final boolean winningMove;
+    private final boolean extraTurn;  // same player rolls again
+    private final boolean penalty;    // too many extra turns in a row, token sent back to where the turn began
+    
+    public MoveEvent(SnakeAndLadderPlayer player, int diceValue, int from, int landing, BoardEntity entity, int to, boolean valid, boolean winningMove) {
+        this(player, diceValue, from, landing, entity, to, valid, winningMove, false, false);
+    }
+    
+    public MoveEvent(SnakeAndLadderPlayer player, int diceValue, int from, int landing, BoardEntity entity, int to, boolean valid, boolean winningMove, boolean extraTurn, boolean penalty) {
+        this.player = player;
+        this.diceValue = diceValue;
+        this.from = from;
+        this.landing = landing;
+        this.entity = entity;
+        this.to = to;
+        this.valid = valid;
+        this.winningMove = winningMove;
+        this.extraTurn = extraTurn;
+        this.penalty = penalty;
+    }
+    
+    public SnakeAndLadderPlayer getPlayer() {
+        return player;
+    }
+    public int getDiceValue() {
+        return diceValue;
+    }
+    public int getFrom() {
+        return from;
+    }
+    public int getLanding() {
+        return landing;
+    }
+    public BoardEntity getEntity() {
+        return entity;
+    }
+    public int getTo() {
+        return to;
+    }
+    public boolean isValid() {
+        return valid;
+    }
+    public boolean isWinningMove() {
+        return winningMove;
+    }
+    public boolean isExtraTurn() {
+        return extraTurn;
+    }
+    public boolean isPenalty() {
+        return penalty;
+    }
+    
+    @Override
+    public void deliverTo(IObserver observer) {
+        observer.onMove(this);
+    }
+    
+    // Text form of the move, built only when an observer asks for it
+    public List<String> describe() {
+        if(penalty) {
+            return Collections.singletonList(player.getName() + " rolled too many extra turns in a row, back to " + to);
+        }
+        if(!valid) {
+            return Collections.emptyList();
+        }
+        List<String> messages = new ArrayList<>(4);
+        if(entity != null) {
+            if(entity.name().equals("SNAKE")) {
+                messages.add(player.getName() + " encountered snake at " + landing + " now going down to " + to);
+            }
+            else {
+                messages.add(player.getName() + " encountered ladder at " + landing + " now going up to " + to);
+            }
+        }
+        messages.add(player.getName() + " played. New Position : " + to);
+        if(winningMove) {
+            messages.add("Game Ended. Winner is : " + player.getName());
+        }
+        else if(extraTurn) {
+            messages.add(player.getName() + " gets another turn");
+        }
+        return messages;
+    }
+}
+
 // Game class
 class SnakeAndLadderGame {
     private Board board;
@@ -417,14 +913,26 @@ class SnakeAndLadderGame {
     private SnakeAndLadderRules rules;
     private List<IObserver> observers;
     private boolean gameOver;
+    private MoveTable moveTable;
+    private int maxRoll;
+    private int extraTurnStreak;       // extra-turn rolls so far in the current player's turn
+    private int turnStartPosition;     // where the current player's turn began
     
     public SnakeAndLadderGame(Board b, Dice d) {
+        this(b, d, new StandardSnakeAndLadderRules());
+    }
+    
+    public SnakeAndLadderGame(Board b, Dice d, SnakeAndLadderRules r) {
         board = b;
         dice = d;
         players = new ArrayDeque<>();
-        rules = new StandardSnakeAndLadderRules();
+        rules = r;
         observers = new ArrayList<>();
         gameOver = false;
+        
+        // Every variant is compiled to a table here, so a turn never re-queries the rules or board
+        maxRoll = rules.getDiceCount() * dice.getFaces();
+        moveTable = rules.compile(board, maxRoll);
     }
     
     public void addPlayer(SnakeAndLadderPlayer player) {
@@ -435,12 +943,22 @@ class SnakeAndLadderGame {
         observers.add(observer);
     }
 
+    public void removeObserver(IObserver observer) {
+        observers.remove(observer);
+    }
+
     public void notify(String msg) {
         for(IObserver observer : observers) {
             observer.update(msg);
         }
     }
     
+    public void notifyMove(MoveEvent move) {
+        for(IObserver observer : observers) {
+            observer.onMove(move);
+        }
+    }
+    
     public void displayPlayerPositions() {
         System.out.println("\n=== Current Positions ===");
         for(SnakeAndLadderPlayer player : players) {
@@ -449,6 +967,98 @@ class SnakeAndLadderGame {
         System.out.println("=======================");
     }
     
+    public SnakeAndLadderPlayer getCurrentPlayer() {
+        return players.peekFirst();
+    }
+    
+    public Board getBoard() {
+        return board;
+    }
+    
+    public boolean isGameOver() {
+        return gameOver;
+    }
+    
+    // Used when restoring a finished game from a snapshot
+    public void setGameOver(boolean over) {
+        gameOver = over;
+    }
+    
+    public Dice getDice() {
+        return dice;
+    }
+    
+    // Players in turn order, current player first
+    public List<SnakeAndLadderPlayer> getPlayers() {
+        return new ArrayList<>(players);
+    }
+    
+    // Rolls for the player at the front of the queue and applies the move.
+    // No console input or output, so it can be driven by a server as well as by play().
+    public MoveEvent playTurn() {
+        SnakeAndLadderPlayer currentPlayer = players.peekFirst();
+        int diceValue = rollDice();
+        int currentPos = currentPlayer.getPosition();
+        if(extraTurnStreak == 0) {
+            turnStartPosition = currentPos;
+        }
+        
+        int newPos = moveTable.next(currentPos, diceValue);
+        boolean valid = newPos >= 0;
+        int intermediatePos = valid ? moveTable.landing(currentPos, diceValue) : currentPos;
+        if(!valid) {
+            newPos = currentPos;
+        }
+        currentPlayer.setPosition(newPos);
+        
+        // Check if player encountered snake or ladder (only looked up when the token jumped)
+        BoardEntity entity = newPos != intermediatePos ? board.getEntity(intermediatePos) : null;
+        
+        boolean won = valid && rules.checkWinCondition(newPos, board.getBoardSize());
+        boolean extraTurn = false;
+        boolean penalty = false;
+        if(won) {
+            currentPlayer.incrementScore();
+            gameOver = true;
+        }
+        else if(rules.grantsExtraTurn(diceValue, maxRoll)) {
+            extraTurnStreak++;
+            int penaltyStreak = rules.getExtraTurnPenaltyStreak();
+            if(penaltyStreak > 0 && extraTurnStreak >= penaltyStreak) {
+                // The whole turn is cancelled
+                penalty = true;
+                newPos = turnStartPosition;
+                currentPlayer.setPosition(newPos);
+                endTurn(currentPlayer);
+            }
+            else {
+                extraTurn = true;
+            }
+        }
+        else {
+            endTurn(currentPlayer);
+        }
+        
+        MoveEvent move = new MoveEvent(currentPlayer, diceValue, currentPos, intermediatePos, entity, newPos, valid, won, extraTurn, penalty);
+        notifyMove(move);
+        return move;
+    }
+    
+    private int rollDice() {
+        int total = 0;
+        for(int i = rules.getDiceCount(); i > 0; i--) {
+            total += dice.roll();
+        }
+        return total;
+    }
+    
+    // Move player to back of queue
+    private void endTurn(SnakeAndLadderPlayer currentPlayer) {
+        extraTurnStreak = 0;
+        players.removeFirst();
+        players.addLast(currentPlayer);
+    }
+    
     public void play() {
         if(players.size() < 2) {
             System.out.println("Need at least 2 players!");
@@ -467,52 +1077,36 @@ class SnakeAndLadderGame {
             System.out.println("\n" + currentPlayer.getName() + "'s turn. Press Enter to roll dice...");
             scanner.nextLine();
             
-            int diceValue = dice.roll();
-            System.out.println("Rolled: " + diceValue);
+            MoveEvent move = playTurn();
+            System.out.println("Rolled: " + move.getDiceValue());
             
-            int currentPos = currentPlayer.getPosition();
+            if(move.isPenalty()) {
+                System.out.println("Too many extra turns in a row! Back to " + move.getTo());
+                continue;
+            }
             
-            if(rules.isValidMove(currentPos, diceValue, board.getBoardSize())) {
-                int intermediatePos = currentPos + diceValue;
-                int newPos = rules.calculateNewPosition(currentPos, diceValue, board);
-                
-                currentPlayer.setPosition(newPos);
-                
-                // Check if player encountered snake or ladder
-                BoardEntity entity = board.getEntity(intermediatePos);
-                if(entity != null) {
-                    boolean isSnake = entity.name().equals("SNAKE");
-                    if(isSnake) {
-                        System.out.println("Oh no! Snake at " + intermediatePos + "! Going down to " + newPos);
-                        notify(currentPlayer.getName() + " encountered snake at " + intermediatePos + " now going down to " + newPos);
-                    }
-                    else {
-                        System.out.println("Great! Ladder at " + intermediatePos + "! Going up to " + newPos);
-                        notify(currentPlayer.getName() + " encountered ladder at " + intermediatePos + " now going up to " + newPos);
-                    }
-                }
-                
-                notify(currentPlayer.getName() + " played. New Position : " + newPos);
-                displayPlayerPositions();
-                
-                if(rules.checkWinCondition(newPos, board.getBoardSize())) {
-                    System.out.println("\n" + currentPlayer.getName() + " wins!");
-                    currentPlayer.incrementScore();
-
-                    notify("Game Ended. Winner is : " + currentPlayer.getName());
-                    gameOver = true;
+            if(!move.isValid()) {
+                System.out.println("Need exact roll to reach " + board.getBoardSize() + "!");
+                continue;
+            }
+            
+            BoardEntity entity = move.getEntity();
+            if(entity != null) {
+                if(entity.name().equals("SNAKE")) {
+                    System.out.println("Oh no! Snake at " + move.getLanding() + "! Going down to " + move.getTo());
                 }
                 else {
-                    // Move player to back of queue
-                    players.removeFirst();
-                    players.addLast(currentPlayer);
+                    System.out.println("Great! Ladder at " + move.getLanding() + "! Going up to " + move.getTo());
                 }
             }
-            else {
-                System.out.println("Need exact roll to reach " + board.getBoardSize() + "!");
-                // Move player to back of queue
-                players.removeFirst();
-                players.addLast(currentPlayer);
+            
+            displayPlayerPositions();
+            
+            if(move.isWinningMove()) {
+                System.out.println("\n" + currentPlayer.getName() + " wins!");
+            }
+            else if(move.isExtraTurn()) {
+                System.out.println(currentPlayer.getName() + " rolls again!");
             }
         }
 
@@ -522,14 +1116,25 @@ class SnakeAndLadderGame {
 
 // Factory Pattern
 class SnakeAndLadderGameFactory {
-    public static SnakeAndLadderGame createStandardGame() {
-        Board board = new Board(10);  // Standard 10x10 board
-        BoardSetupStrategy strategy = new StandardBoardSetupStrategy();
-        board.setupBoard(strategy);
+    // Standard layout, validated and compiled once; its move tables are shared by every standard game
+    private static class StandardBoardHolder {
+        static final CompiledBoard BOARD = createStandardBoard();
         
+        private static CompiledBoard createStandardBoard() {
+            Board board = new Board(10);  // Standard 10x10 board
+            board.setupBoard(new StandardBoardSetupStrategy());
+            BoardValidationReport report = board.validate(6);
+            if(!report.isValid()) {
+                throw new IllegalStateException("Standard board is invalid: " + String.join("; ", report.getErrors()));
+            }
+            return board.compile();
+        }
+    }
+    
+    public static SnakeAndLadderGame createStandardGame() {
         Dice dice = new Dice(6);  // Standard 6-faced dice
         
-        return new SnakeAndLadderGame(board, dice);
+        return new SnakeAndLadderGame(StandardBoardHolder.BOARD, dice);
     }
     
     public static SnakeAndLadderGame createRandomGame(int boardSize, RandomBoardSetupStrategy.Difficulty difficulty) {
@@ -539,16 +1144,35 @@ class SnakeAndLadderGameFactory {
         
         Dice dice = new Dice(6);
         
-        return new SnakeAndLadderGame(board, dice);
+        return createValidatedGame(board, dice);
     }
     
     public static SnakeAndLadderGame createCustomGame(int boardSize, BoardSetupStrategy strategy) {
+        return createCustomGame(boardSize, strategy, new StandardSnakeAndLadderRules());
+    }
+    
+    // Any rule variant, e.g. new ExtraTurnOnSixRules(new StandardSnakeAndLadderRules())
+    public static SnakeAndLadderGame createCustomGame(int boardSize, BoardSetupStrategy strategy, SnakeAndLadderRules rules) {
         Board board = new Board(boardSize);
         board.setupBoard(strategy);
         
         Dice dice = new Dice(6);
         
-        return new SnakeAndLadderGame(board, dice);
+        return createValidatedGame(board, dice, rules);
+    }
+    
+    private static SnakeAndLadderGame createValidatedGame(Board board, Dice dice) {
+        return createValidatedGame(board, dice, new StandardSnakeAndLadderRules());
+    }
+    
+    // Validates the finished layout once, then hands the game a compiled board.
+    // An invalid layout is rejected rather than played.
+    private static SnakeAndLadderGame createValidatedGame(Board board, Dice dice, SnakeAndLadderRules rules) {
+        BoardValidationReport report = board.validate(dice.getFaces());
+        if(!report.isValid()) {
+            throw new IllegalArgumentException("Invalid board: " + String.join("; ", report.getErrors()));
+        }
+        return new SnakeAndLadderGame(board.compile(), dice, rules);
     }
 }
 
@@ -564,89 +1188,119 @@ public class SnakeAndLadder {
         System.out.println("1. Standard Game (10x10 board with traditional positions)");
         System.out.println("2. Random Game with Difficulty");
         System.out.println("3. Custom Game");
+        System.out.println("4. Simulate Standard Board (headless)");
         
         Scanner scanner = new Scanner(System.in);
         int choice = scanner.nextInt();
         
-        if(choice == 1) {
-            // Standard game
-            game = SnakeAndLadderGameFactory.createStandardGame();
-            board = new Board(10);
+        // Invalid custom or random layouts are rejected by the factory
+        try {
+            if(choice == 1) {
+                // Standard game
+                game = SnakeAndLadderGameFactory.createStandardGame();
+                board = new Board(10);
             
-        }
-        else if(choice == 2) {
-            // Random game with difficulty
-            System.out.print("Enter board size (e.g., 10 for 10x10 board): ");
-            int boardSize = scanner.nextInt();
+            }
+            else if(choice == 2) {
+                // Random game with difficulty
+                System.out.print("Enter board size (e.g., 10 for 10x10 board): ");
+                int boardSize = scanner.nextInt();
             
-            System.out.println("Choose difficulty:");
-            System.out.println("1. Easy (more ladders)");
-            System.out.println("2. Medium (balanced)");
-            System.out.println("3. Hard (more snakes)");
+                System.out.println("Choose difficulty:");
+                System.out.println("1. Easy (more ladders)");
+                System.out.println("2. Medium (balanced)");
+                System.out.println("3. Hard (more snakes)");
             
-            int diffChoice = scanner.nextInt();
+                int diffChoice = scanner.nextInt();
             
-            RandomBoardSetupStrategy.Difficulty diff;
-            switch(diffChoice) {
-                case 1: diff = RandomBoardSetupStrategy.Difficulty.EASY; break;
-                case 2: diff = RandomBoardSetupStrategy.Difficulty.MEDIUM; break;
-                case 3: diff = RandomBoardSetupStrategy.Difficulty.HARD; break;
-                default: diff = RandomBoardSetupStrategy.Difficulty.MEDIUM;
-            }
+                RandomBoardSetupStrategy.Difficulty diff;
+                switch(diffChoice) {
+                    case 1: diff = RandomBoardSetupStrategy.Difficulty.EASY; break;
+                    case 2: diff = RandomBoardSetupStrategy.Difficulty.MEDIUM; break;
+                    case 3: diff = RandomBoardSetupStrategy.Difficulty.HARD; break;
+                    default: diff = RandomBoardSetupStrategy.Difficulty.MEDIUM;
+                }
             
-            game = SnakeAndLadderGameFactory.createRandomGame(boardSize, diff);
-            board = new Board(boardSize);
+                game = SnakeAndLadderGameFactory.createRandomGame(boardSize, diff);
+                board = new Board(boardSize);
             
-        } 
-        else if(choice == 3) {
-            // Custom game
-            System.out.print("Enter board size (e.g., 10 for 10x10 board): ");
-            int boardSize = scanner.nextInt();
+            } 
+            else if(choice == 3) {
+                // Custom game
+                System.out.print("Enter board size (e.g., 10 for 10x10 board): ");
+                int boardSize = scanner.nextInt();
             
-            System.out.println("Choose custom setup type:");
-            System.out.println("1. Specify counts only (random placement)");
-            System.out.println("2. Specify exact positions");
+                System.out.println("Choose custom setup type:");
+                System.out.println("1. Specify counts only (random placement)");
+                System.out.println("2. Specify exact positions");
             
-            int customChoice = scanner.nextInt();
+                int customChoice = scanner.nextInt();
             
-            if(customChoice == 1) {
-                System.out.print("Enter number of snakes: ");
-                int numSnakes = scanner.nextInt();
-                System.out.print("Enter number of ladders: ");
-                int numLadders = scanner.nextInt();
+                if(customChoice == 1) {
+                    System.out.print("Enter number of snakes: ");
+                    int numSnakes = scanner.nextInt();
+                    System.out.print("Enter number of ladders: ");
+                    int numLadders = scanner.nextInt();
                 
-                BoardSetupStrategy strategy = new CustomCountBoardSetupStrategy(numSnakes, numLadders, true);
-                game = SnakeAndLadderGameFactory.createCustomGame(boardSize, strategy);
+                    BoardSetupStrategy strategy = new CustomCountBoardSetupStrategy(numSnakes, numLadders, true);
+                    game = SnakeAndLadderGameFactory.createCustomGame(boardSize, strategy);
                 
-            } 
-            else {
-                System.out.print("Enter number of snakes: ");
-                int numSnakes = scanner.nextInt();
-                System.out.print("Enter number of ladders: ");
-                int numLadders = scanner.nextInt();
+                } 
+                else {
+                    System.out.print("Enter number of snakes: ");
+                    int numSnakes = scanner.nextInt();
+                    System.out.print("Enter number of ladders: ");
+                    int numLadders = scanner.nextInt();
                 
-                CustomCountBoardSetupStrategy strategy = new CustomCountBoardSetupStrategy(numSnakes, numLadders, false);
+                    CustomCountBoardSetupStrategy strategy = new CustomCountBoardSetupStrategy(numSnakes, numLadders, false);
                 
-                // Get snake positions
-                for(int i = 0; i < numSnakes; i++) {
-                    System.out.print("Enter snake " + (i+1) + " start and end positions: ");
-                    int start = scanner.nextInt();
-                    int end = scanner.nextInt();
-                    strategy.addSnakePosition(start, end);
-                }
+                    // Get snake positions
+                    for(int i = 0; i < numSnakes; i++) {
+                        System.out.print("Enter snake " + (i+1) + " start and end positions: ");
+                        int start = scanner.nextInt();
+                        int end = scanner.nextInt();
+                        strategy.addSnakePosition(start, end);
+                    }
                 
-                // Get ladder positions
-                for(int i = 0; i < numLadders; i++) {
-                    System.out.print("Enter ladder " + (i+1) + " start and end positions: ");
-                    int start = scanner.nextInt();
-                    int end = scanner.nextInt();
-                    strategy.addLadderPosition(start, end);
-                }
+                    // Get ladder positions
+                    for(int i = 0; i < numLadders; i++) {
+                        System.out.print("Enter ladder " + (i+1) + " start and end positions: ");
+                        int start = scanner.nextInt();
+                        int end = scanner.nextInt();
+                        strategy.addLadderPosition(start, end);
+                    }
                 
-                game = SnakeAndLadderGameFactory.createCustomGame(boardSize, strategy);
+                    game = SnakeAndLadderGameFactory.createCustomGame(boardSize, strategy);
+                }
+            
+                board = new Board(boardSize);
             }
+            else if(choice == 4) {
+                // Headless simulation of the standard board
+                System.out.print("Enter number of players: ");
+                int numPlayers = scanner.nextInt();
+                System.out.print("Enter number of games: ");
+                int numGames = scanner.nextInt();
+
+                board = new Board(10);
+                board.setupBoard(new StandardBoardSetupStrategy());
+
+                long seed = System.nanoTime();
+                System.out.println("Seed: " + seed);
             
-            board = new Board(boardSize);
+                SnakeAndLadderSimulator simulator = new SnakeAndLadderSimulator(board, new SeededDice(6, seed), new StandardSnakeAndLadderRules(), numPlayers);
+                SimulationResult result = simulator.run(numGames);
+                result.display();
+                result.getHeatmap().display();
+
+                scanner.close();
+                return;
+            }
+        }
+        catch(IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            scanner.close();
+            return;
         }
         
         if(game == null) {
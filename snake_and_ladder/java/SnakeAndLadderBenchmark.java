@@ -0,0 +1,210 @@
+package snake_and_ladder.java;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+// Work under measurement: performs `ops` operations and returns something derived from them,
+// so the JIT cannot drop the work as dead code
+interface BenchmarkOperation {
+    long run(int ops);
+}
+
+// Timing and allocation figures for one benchmark
+class BenchmarkResult {
+    private final String name;
+    private final double nsPerOp;
+    private final double bytesPerOp;
+
+    public BenchmarkResult(String name, double nsPerOp, double bytesPerOp) {
+        this.name = name;
+        this.nsPerOp = nsPerOp;
+        this.bytesPerOp = bytesPerOp;
+    }
+
+    // Allocation rate in MB/s, the same figure JMH reports as gc.alloc.rate
+    public double getAllocRateMbPerSec() {
+        return nsPerOp == 0 ? 0 : bytesPerOp / nsPerOp * 1e9 / (1024 * 1024);
+    }
+
+    public void display() {
+        System.out.printf("%-48s %14.1f ns/op %12.1f B/op %10.1f MB/s alloc%n", name, nsPerOp, bytesPerOp, getAllocRateMbPerSec());
+    }
+}
+
+// Minimal JMH-style runner: timed warmup iterations, then timed measurement iterations.
+// Allocation is read from the per-thread allocated-bytes counter of the HotSpot ThreadMXBean.
+class MicroBenchmark {
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final long ITERATION_NANOS = 500_000_000L;
+
+    private static volatile long sink;
+
+    public static BenchmarkResult measure(String name, int opsPerCall, BenchmarkOperation operation) {
+        for(int i = 0; i < WARMUP_ITERATIONS; i++) {
+            runIteration(opsPerCall, operation);
+        }
+
+        long ops = 0;
+        long nanos = 0;
+        long bytes = 0;
+        for(int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+            long[] iteration = runIteration(opsPerCall, operation);
+            ops += iteration[0];
+            nanos += iteration[1];
+            bytes += iteration[2];
+        }
+        return new BenchmarkResult(name, (double) nanos / ops, (double) bytes / ops);
+    }
+
+    // Returns {ops, elapsed nanos, allocated bytes}
+    private static long[] runIteration(int opsPerCall, BenchmarkOperation operation) {
+        long ops = 0;
+        long startBytes = allocatedBytes();
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            sink += operation.run(opsPerCall);
+            ops += opsPerCall;
+            elapsed = System.nanoTime() - start;
+        } while(elapsed < ITERATION_NANOS);
+        return new long[] { ops, elapsed, allocatedBytes() - startBytes };
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if(bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;  // not a HotSpot JVM, allocation is not reported
+    }
+}
+
+// Benchmarks for the snake and ladder engine.
+// Run with an optional name filter, e.g. `java snake_and_ladder.java.SnakeAndLadderBenchmark setup`.
+public class SnakeAndLadderBenchmark {
+    private static final int[] BOARD_SIDES = { 10, 100, 1000 };
+    private static final int LOOKUPS_PER_CALL = 1024;
+
+    public static void main(String[] args) {
+        String filter = args.length > 0 ? args[0] : "";
+        List<BenchmarkResult> results = new ArrayList<>();
+
+        for(int side : BOARD_SIDES) {
+            Board board = new Board(side);
+            board.setupBoard(new RandomBoardSetupStrategy(RandomBoardSetupStrategy.Difficulty.MEDIUM));
+            CompiledBoard compiled = board.compile();
+            int[] cells = randomCells(board.getBoardSize());
+
+            run(results, filter, "getEntity/map/" + side, LOOKUPS_PER_CALL, ops -> lookupAll(board, cells, ops));
+            run(results, filter, "getEntity/compiled/" + side, LOOKUPS_PER_CALL, ops -> lookupAll(compiled, cells, ops));
+            run(results, filter, "calculateNewPosition/map/" + side, LOOKUPS_PER_CALL, ops -> moveAll(board, cells, ops));
+            run(results, filter, "calculateNewPosition/compiled/" + side, LOOKUPS_PER_CALL, ops -> moveAll(compiled, cells, ops));
+        }
+
+        for(int side : new int[] { 10, 100 }) {
+            CompiledBoard compiled = playableRandomBoard(side).compile();
+            run(results, filter, "gameLoop/" + side, 1, ops -> playGames(compiled, ops));
+        }
+
+        for(int side : BOARD_SIDES) {
+            int cells = side * side;
+            if(side == 10) {
+                run(results, filter, "setup/standard/" + side, 1, ops -> setupBoards(side, new StandardBoardSetupStrategy(), ops));
+            }
+            for(RandomBoardSetupStrategy.Difficulty difficulty : RandomBoardSetupStrategy.Difficulty.values()) {
+                run(results, filter, "setup/random-" + difficulty.name().toLowerCase() + "/" + side, 1,
+                    ops -> setupBoards(side, new RandomBoardSetupStrategy(difficulty), ops));
+            }
+            run(results, filter, "setup/custom-count/" + side, 1,
+                ops -> setupBoards(side, new CustomCountBoardSetupStrategy(cells / 20, cells / 20, true), ops));
+            run(results, filter, "setup/custom-positions/" + side, 1,
+                ops -> setupBoards(side, fixedPositionStrategy(cells), ops));
+        }
+
+        System.out.println("\n=== Benchmark Results ===");
+        for(BenchmarkResult result : results) {
+            result.display();
+        }
+        System.out.println("=========================");
+    }
+
+    private static void run(List<BenchmarkResult> results, String filter, String name, int opsPerCall, BenchmarkOperation operation) {
+        if(!name.contains(filter)) return;
+        System.out.println("Running " + name + "...");
+        results.add(MicroBenchmark.measure(name, opsPerCall, operation));
+    }
+
+    // Random boards can contain traps, and a game on one would never end
+    private static Board playableRandomBoard(int side) {
+        while(true) {
+            Board board = new Board(side);
+            board.setupBoard(new RandomBoardSetupStrategy(RandomBoardSetupStrategy.Difficulty.MEDIUM));
+            if(board.validate(6).isValid()) {
+                return board;
+            }
+        }
+    }
+
+    private static int[] randomCells(int boardSize) {
+        SplittableRandom random = new SplittableRandom(42);
+        int[] cells = new int[LOOKUPS_PER_CALL];
+        for(int i = 0; i < cells.length; i++) {
+            cells[i] = random.nextInt(boardSize - 6);
+        }
+        return cells;
+    }
+
+    private static long lookupAll(Board board, int[] cells, int ops) {
+        long found = 0;
+        for(int i = 0; i < ops; i++) {
+            if(board.getEntity(cells[i]) != null) found++;
+        }
+        return found;
+    }
+
+    private static long moveAll(Board board, int[] cells, int ops) {
+        SnakeAndLadderRules rules = new StandardSnakeAndLadderRules();
+        long sum = 0;
+        for(int i = 0; i < ops; i++) {
+            sum += rules.calculateNewPosition(cells[i], (i % 6) + 1, board);
+        }
+        return sum;
+    }
+
+    private static long gameSeed = 0;
+
+    private static long playGames(CompiledBoard board, int ops) {
+        long turns = 0;
+        for(int i = 0; i < ops; i++) {
+            SnakeAndLadderGame game = new SnakeAndLadderGame(board, new SeededDice(6, gameSeed++));
+            game.addPlayer(new SnakeAndLadderPlayer(1, "A"));
+            game.addPlayer(new SnakeAndLadderPlayer(2, "B"));
+            while(!game.isGameOver()) {
+                game.playTurn();
+                turns++;
+            }
+        }
+        return turns;
+    }
+
+    private static long setupBoards(int side, BoardSetupStrategy strategy, int ops) {
+        long entities = 0;
+        for(int i = 0; i < ops; i++) {
+            Board board = new Board(side);
+            board.setupBoard(strategy);
+            entities += board.getSnakesAndLadders().size();
+        }
+        return entities;
+    }
+
+    // Evenly spread snakes and ladders on about 10% of the cells
+    private static BoardSetupStrategy fixedPositionStrategy(int cells) {
+        CustomCountBoardSetupStrategy strategy = new CustomCountBoardSetupStrategy(0, 0, false);
+        for(int start = 20; start < cells - 10; start += 20) {
+            strategy.addSnakePosition(start, start - 9);
+            strategy.addLadderPosition(start + 10, start + 15);
+        }
+        return strategy;
+    }
+}
@@ -0,0 +1,146 @@
+package snake_and_ladder.java;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// What a producer does when the event bus is full
+enum BackpressurePolicy {
+    BLOCK,        // wait for space - no event is lost, the game turn waits
+    DROP_NEWEST,  // discard the event being published
+    DROP_OLDEST   // discard the oldest queued event to make room
+}
+
+// Asynchronous event bus between games and their observers.
+// Register it on a game with addObserver(): the game only enqueues the event into a bounded
+// ring buffer, and a consumer thread delivers events to the real observers in batches.
+// Text messages are formatted on the consumer thread, and only for observers that use them.
+// Detach the bus from its games (removeObserver) before close(): events published after
+// close() are counted as dropped and never delivered.
+class AsyncEventBus implements IObserver, AutoCloseable {
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final ArrayBlockingQueue<GameEvent> ringBuffer;
+    private final List<IObserver> observers;
+    private final BackpressurePolicy policy;
+    private final int batchSize;
+    private final LongAdder droppedEvents;
+    private final Thread consumer;
+    private volatile boolean running;
+
+    public AsyncEventBus(int capacity, int batchSize, BackpressurePolicy policy) {
+        this.ringBuffer = new ArrayBlockingQueue<>(capacity);
+        this.observers = new CopyOnWriteArrayList<>();
+        this.policy = policy;
+        this.batchSize = batchSize;
+        this.droppedEvents = new LongAdder();
+        this.running = true;
+
+        consumer = new Thread(this::consume, "snake-and-ladder-event-bus");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    public void subscribe(IObserver observer) {
+        observers.add(observer);
+    }
+
+    public void unsubscribe(IObserver observer) {
+        observers.remove(observer);
+    }
+
+    @Override
+    public void update(String msg) {
+        publish(new MessageEvent(msg));
+    }
+
+    @Override
+    public void onMove(MoveEvent move) {
+        publish(move);
+    }
+
+    public void publish(GameEvent event) {
+        if(!running) {
+            droppedEvents.increment();
+            return;
+        }
+        switch(policy) {
+            case BLOCK:
+                try {
+                    // Re-check between waits, so a producer blocked on a full buffer gives up once the bus is closed
+                    while(!ringBuffer.offer(event, POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                        if(!running) {
+                            droppedEvents.increment();
+                            break;
+                        }
+                    }
+                } catch(InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    droppedEvents.increment();
+                }
+                break;
+            case DROP_NEWEST:
+                if(!ringBuffer.offer(event)) {
+                    droppedEvents.increment();
+                }
+                break;
+            case DROP_OLDEST:
+                while(!ringBuffer.offer(event)) {
+                    if(ringBuffer.poll() != null) {
+                        droppedEvents.increment();
+                    }
+                }
+                break;
+        }
+    }
+
+    private void consume() {
+        List<GameEvent> batch = new ArrayList<>(batchSize);
+        while(running || !ringBuffer.isEmpty()) {
+            try {
+                // Wait for the first event, then take whatever else is already queued
+                GameEvent first = ringBuffer.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if(first == null) continue;
+                batch.add(first);
+                ringBuffer.drainTo(batch, batchSize - 1);
+            } catch(InterruptedException e) {
+                ringBuffer.drainTo(batch);
+                running = false;
+            }
+
+            for(IObserver observer : observers) {
+                for(GameEvent event : batch) {
+                    try {
+                        event.deliverTo(observer);
+                    } catch(RuntimeException e) {
+                        // A failing observer must not stop delivery to the others
+                        System.out.println("Observer failed: " + e.getMessage());
+                    }
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.sum();
+    }
+
+    public int getQueuedEvents() {
+        return ringBuffer.size();
+    }
+
+    // Stops the consumer once everything already queued has been delivered.
+    // Later publishes are dropped, so detach the bus from its games first.
+    @Override
+    public void close() {
+        running = false;
+        try {
+            consumer.join();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package snake_and_ladder.java;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Non-blocking inbox for one player's input.
+// Network / UI threads offer roll requests, the table's event loop polls them.
+class PlayerInbox {
+    private final ConcurrentLinkedQueue<Long> pendingRolls = new ConcurrentLinkedQueue<>();
+
+    public void offerRoll(long receivedAtNanos) {
+        pendingRolls.offer(receivedAtNanos);
+    }
+
+    // Arrival time of the oldest pending roll, or null if there is none
+    public Long pollRoll() {
+        return pendingRolls.poll();
+    }
+
+    public boolean hasPendingRoll() {
+        return !pendingRolls.isEmpty();
+    }
+}
+
+// Per-table latency metrics: time from a roll request arriving to the move being applied.
+// Written only by the table's event loop, read by anyone.
+class TableMetrics {
+    private volatile long turnsPlayed;
+    private volatile long totalLatencyNanos;
+    private volatile long maxLatencyNanos;
+
+    public void recordTurn(long latencyNanos) {
+        turnsPlayed++;
+        totalLatencyNanos += latencyNanos;
+        if(latencyNanos > maxLatencyNanos) {
+            maxLatencyNanos = latencyNanos;
+        }
+    }
+
+    public long getTurnsPlayed() {
+        return turnsPlayed;
+    }
+
+    public long getTotalLatencyNanos() {
+        return totalLatencyNanos;
+    }
+
+    public long getMaxLatencyNanos() {
+        return maxLatencyNanos;
+    }
+
+    public double getMeanLatencyMicros() {
+        long turns = turnsPlayed;
+        return turns == 0 ? 0 : totalLatencyNanos / 1000.0 / turns;
+    }
+
+    public double getMaxLatencyMicros() {
+        return maxLatencyNanos / 1000.0;
+    }
+}
+
+// One hosted game plus its inboxes.
+// A table never holds a thread: it is scheduled on the server's event loop pool only when a
+// roll arrives, and the `scheduled` flag guarantees at most one thread drives it at a time.
+class GameTable {
+    private final long tableId;
+    private final SnakeAndLadderGame game;
+    private final Map<Integer, PlayerInbox> inboxes;
+    private final TableMetrics metrics;
+    private final AtomicBoolean scheduled;
+    private final Executor eventLoop;
+    private final Runnable onFinished;
+
+    public GameTable(long tableId, SnakeAndLadderGame game, List<SnakeAndLadderPlayer> players, Executor eventLoop, Runnable onFinished) {
+        this.tableId = tableId;
+        this.game = game;
+        this.inboxes = new HashMap<>();
+        this.metrics = new TableMetrics();
+        this.scheduled = new AtomicBoolean(false);
+        this.eventLoop = eventLoop;
+        this.onFinished = onFinished;
+
+        for(SnakeAndLadderPlayer player : players) {
+            inboxes.put(player.getPlayerId(), new PlayerInbox());
+        }
+    }
+
+    public void submitRoll(int playerId) {
+        PlayerInbox inbox = inboxes.get(playerId);
+        if(inbox == null) {
+            throw new IllegalArgumentException("Player " + playerId + " is not seated at table " + tableId);
+        }
+        inbox.offerRoll(System.nanoTime());
+        schedule();
+    }
+
+    private void schedule() {
+        if(scheduled.compareAndSet(false, true)) {
+            try {
+                eventLoop.execute(this::drain);
+            }
+            catch(RejectedExecutionException e) {
+                // The event loop is shut down; leave the table schedulable rather than stuck
+                scheduled.set(false);
+                throw new IllegalStateException("Table " + tableId + " cannot play: the server is shut down", e);
+            }
+        }
+    }
+
+    // Plays every turn whose player has a pending roll. Rolls from players who are not
+    // on turn stay queued until their turn comes round.
+    private void drain() {
+        do {
+            try {
+                playPendingTurns();
+            }
+            finally {
+                // Also on a failed turn, or the table would never be scheduled again.
+                // A finished table keeps `scheduled` set so it is never run again.
+                if(!game.isGameOver()) {
+                    scheduled.set(false);
+                }
+            }
+            if(game.isGameOver()) {
+                onFinished.run();
+                return;
+            }
+            // A roll may have arrived between the last poll and clearing the flag
+        } while(currentPlayerHasInput() && scheduled.compareAndSet(false, true));
+    }
+
+    private void playPendingTurns() {
+        while(!game.isGameOver()) {
+            PlayerInbox inbox = inboxes.get(game.getCurrentPlayer().getPlayerId());
+            Long receivedAt = inbox.pollRoll();
+            if(receivedAt == null) break;
+
+            game.playTurn();
+            metrics.recordTurn(System.nanoTime() - receivedAt);
+        }
+    }
+
+    private boolean currentPlayerHasInput() {
+        return inboxes.get(game.getCurrentPlayer().getPlayerId()).hasPendingRoll();
+    }
+
+    public long getTableId() {
+        return tableId;
+    }
+
+    public SnakeAndLadderGame getGame() {
+        return game;
+    }
+
+    public TableMetrics getMetrics() {
+        return metrics;
+    }
+}
+
+// Hosts many independent SnakeAndLadderGame tables in one JVM.
+// Tables are driven by a small event loop pool (one thread per core) instead of a platform
+// thread per table, and player input comes through per-player inboxes instead of System.in.
+class SnakeAndLadderGameServer {
+    private final ExecutorService eventLoop;
+    private final Map<Long, GameTable> tables;
+    private final AtomicLong nextTableId;
+    private final LongAdder finishedGames;
+    // Metrics of finished tables, which are removed from `tables`
+    private final LongAdder finishedTurns;
+    private final LongAdder finishedLatencyNanos;
+    private final AtomicLong finishedMaxLatencyNanos;
+
+    public SnakeAndLadderGameServer() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public SnakeAndLadderGameServer(int eventLoopThreads) {
+        eventLoop = Executors.newFixedThreadPool(eventLoopThreads);
+        tables = new ConcurrentHashMap<>();
+        nextTableId = new AtomicLong(1);
+        finishedGames = new LongAdder();
+        finishedTurns = new LongAdder();
+        finishedLatencyNanos = new LongAdder();
+        finishedMaxLatencyNanos = new AtomicLong();
+    }
+
+    // Seats the players and opens the table; returns the table id used for input
+    public long openTable(SnakeAndLadderGame game, List<SnakeAndLadderPlayer> players) {
+        if(players.size() < 2) {
+            throw new IllegalArgumentException("Need at least 2 players!");
+        }
+        for(SnakeAndLadderPlayer player : players) {
+            game.addPlayer(player);
+        }
+        game.notify("Game started");
+
+        long tableId = nextTableId.getAndIncrement();
+        tables.put(tableId, new GameTable(tableId, game, players, eventLoop, () -> retireTable(tableId)));
+        return tableId;
+    }
+
+    // Drops a finished table, keeping only its metrics
+    private void retireTable(long tableId) {
+        GameTable table = tables.remove(tableId);
+        if(table == null) return;
+
+        TableMetrics metrics = table.getMetrics();
+        finishedGames.increment();
+        finishedTurns.add(metrics.getTurnsPlayed());
+        finishedLatencyNanos.add(metrics.getTotalLatencyNanos());
+        finishedMaxLatencyNanos.accumulateAndGet(metrics.getMaxLatencyNanos(), Math::max);
+    }
+
+    // Restores every unfinished game from the snapshot file under its old table id
+    public void restoreTables(GameSnapshotStore store) throws IOException {
+        for(Map.Entry<Long, SnakeAndLadderGame> entry : store.restoreAll().entrySet()) {
+            SnakeAndLadderGame game = entry.getValue();
+            if(game.isGameOver()) continue;
+
+            long tableId = entry.getKey();
+            tables.put(tableId, new GameTable(tableId, game, game.getPlayers(), eventLoop, () -> retireTable(tableId)));
+            nextTableId.accumulateAndGet(tableId + 1, Math::max);
+        }
+    }
+
+    // Stops the event loops so no table is mid-turn, then writes every open table in one batch
+    public void shutdownAndCheckpoint(GameSnapshotStore store) throws IOException, InterruptedException {
+        eventLoop.shutdown();
+        if(!eventLoop.awaitTermination(1, TimeUnit.MINUTES)) {
+            // Interrupts the stuck turns; their tables are checkpointed as they stand
+            System.out.println("[SERVER] Event loops still busy after 1 minute, forcing shutdown");
+            eventLoop.shutdownNow();
+            if(!eventLoop.awaitTermination(10, TimeUnit.SECONDS)) {
+                System.out.println("[SERVER] Event loops did not stop, checkpoint may catch a table mid-turn");
+            }
+        }
+
+        Map<Long, SnakeAndLadderGame> games = new LinkedHashMap<>();
+        for(GameTable table : tables.values()) {
+            games.put(table.getTableId(), table.getGame());
+        }
+        store.appendAll(games);
+    }
+
+    public void submitRoll(long tableId, int playerId) {
+        if(eventLoop.isShutdown()) {
+            throw new IllegalStateException("Server is shut down, roll for table " + tableId + " rejected");
+        }
+        GameTable table = tables.get(tableId);
+        if(table == null) {
+            throw new IllegalArgumentException("No table with id " + tableId);
+        }
+        table.submitRoll(playerId);
+    }
+
+    public GameTable getTable(long tableId) {
+        return tables.get(tableId);
+    }
+
+    public void closeTable(long tableId) {
+        tables.remove(tableId);
+    }
+
+    public int getOpenTables() {
+        return tables.size();
+    }
+
+    public long getFinishedGames() {
+        return finishedGames.sum();
+    }
+
+    public void displayMetrics() {
+        long turns = finishedTurns.sum();
+        long latencyNanos = finishedLatencyNanos.sum();
+        long maxLatencyNanos = finishedMaxLatencyNanos.get();
+        for(GameTable table : tables.values()) {
+            TableMetrics metrics = table.getMetrics();
+            turns += metrics.getTurnsPlayed();
+            latencyNanos += metrics.getTotalLatencyNanos();
+            maxLatencyNanos = Math.max(maxLatencyNanos, metrics.getMaxLatencyNanos());
+        }
+
+        System.out.println("\n=== Game Server ===");
+        System.out.println("Open tables: " + tables.size() + ", finished games: " + getFinishedGames());
+        System.out.printf("Turns: %d, mean latency %.1f us, max latency %.1f us%n", turns,
+            turns == 0 ? 0 : latencyNanos / 1000.0 / turns, maxLatencyNanos / 1000.0);
+        System.out.println("===================");
+    }
+
+    public void shutdown() {
+        eventLoop.shutdown();
+    }
+}
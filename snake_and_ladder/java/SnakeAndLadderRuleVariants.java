@@ -0,0 +1,139 @@
+package snake_and_ladder.java;
+
+// Decorator Pattern over SnakeAndLadderRules.
+// Each variant changes one aspect and delegates the rest, so variants stack, e.g.
+//   new ThreeSixesPenaltyRules(new ExtraTurnOnSixRules(new BounceBackRules(new StandardSnakeAndLadderRules())))
+// SnakeAndLadderGame compiles whatever stack it gets into a MoveTable when the game starts.
+abstract class SnakeAndLadderRulesDecorator implements SnakeAndLadderRules {
+    protected final SnakeAndLadderRules wrapped;
+
+    public SnakeAndLadderRulesDecorator(SnakeAndLadderRules wrapped) {
+        this.wrapped = wrapped;
+    }
+
+    @Override
+    public String getRulesKey() {
+        return getClass().getName() + "(" + wrapped.getRulesKey() + ")";
+    }
+
+    @Override
+    public MoveTable compile(SnakeAndLadderRules outermost, Board board, int maxRoll) {
+        return wrapped.compile(outermost, board, maxRoll);
+    }
+
+    @Override
+    public boolean isValidMove(int currentPos, int diceValue, int boardSize) {
+        return wrapped.isValidMove(currentPos, diceValue, boardSize);
+    }
+
+    @Override
+    public int calculateNewPosition(int currentPos, int diceValue, Board board) {
+        return wrapped.calculateNewPosition(currentPos, diceValue, board);
+    }
+
+    @Override
+    public boolean checkWinCondition(int position, int boardSize) {
+        return wrapped.checkWinCondition(position, boardSize);
+    }
+
+    @Override
+    public int landingCell(int currentPos, int diceValue, int boardSize) {
+        return wrapped.landingCell(currentPos, diceValue, boardSize);
+    }
+
+    @Override
+    public int getDiceCount() {
+        return wrapped.getDiceCount();
+    }
+
+    @Override
+    public boolean grantsExtraTurn(int diceValue, int maxRoll) {
+        return wrapped.grantsExtraTurn(diceValue, maxRoll);
+    }
+
+    @Override
+    public int getExtraTurnPenaltyStreak() {
+        return wrapped.getExtraTurnPenaltyStreak();
+    }
+}
+
+// Overshooting the last cell bounces back by the excess instead of wasting the roll.
+// The bounced roll is handed to the wrapped rules as the step that reaches the bounce cell.
+class BounceBackRules extends SnakeAndLadderRulesDecorator {
+    public BounceBackRules(SnakeAndLadderRules wrapped) {
+        super(wrapped);
+    }
+
+    // Roll that takes the token straight to the cell it bounces to
+    private static int bouncedRoll(int currentPos, int diceValue, int boardSize) {
+        int target = currentPos + diceValue;
+        if(target <= boardSize) return diceValue;
+        return Math.max(0, boardSize - (target - boardSize)) - currentPos;
+    }
+
+    @Override
+    public boolean isValidMove(int currentPos, int diceValue, int boardSize) {
+        return currentPos < boardSize
+            && wrapped.isValidMove(currentPos, bouncedRoll(currentPos, diceValue, boardSize), boardSize);
+    }
+
+    @Override
+    public int landingCell(int currentPos, int diceValue, int boardSize) {
+        return wrapped.landingCell(currentPos, bouncedRoll(currentPos, diceValue, boardSize), boardSize);
+    }
+
+    @Override
+    public int calculateNewPosition(int currentPos, int diceValue, Board board) {
+        return wrapped.calculateNewPosition(currentPos, bouncedRoll(currentPos, diceValue, board.getBoardSize()), board);
+    }
+}
+
+// Rolling a six (every die on its top face) gives another roll
+class ExtraTurnOnSixRules extends SnakeAndLadderRulesDecorator {
+    public ExtraTurnOnSixRules(SnakeAndLadderRules wrapped) {
+        super(wrapped);
+    }
+
+    @Override
+    public boolean grantsExtraTurn(int diceValue, int maxRoll) {
+        return diceValue == maxRoll || wrapped.grantsExtraTurn(diceValue, maxRoll);
+    }
+}
+
+// Three sixes in a row cancel the turn and send the token back to where the turn began.
+// Only meaningful on top of a rule that grants extra turns.
+class ThreeSixesPenaltyRules extends SnakeAndLadderRulesDecorator {
+    private static final int PENALTY_STREAK = 3;
+
+    public ThreeSixesPenaltyRules(SnakeAndLadderRules wrapped) {
+        super(wrapped);
+    }
+
+    @Override
+    public int getExtraTurnPenaltyStreak() {
+        return PENALTY_STREAK;
+    }
+}
+
+// Several dice rolled together, the token moves by their sum
+class MultipleDiceRules extends SnakeAndLadderRulesDecorator {
+    private final int diceCount;
+
+    public MultipleDiceRules(SnakeAndLadderRules wrapped, int diceCount) {
+        super(wrapped);
+        if(diceCount < 1) {
+            throw new IllegalArgumentException("Need at least 1 dice");
+        }
+        this.diceCount = diceCount;
+    }
+
+    @Override
+    public int getDiceCount() {
+        return diceCount;
+    }
+
+    @Override
+    public String getRulesKey() {
+        return getClass().getName() + "[" + diceCount + "](" + wrapped.getRulesKey() + ")";
+    }
+}
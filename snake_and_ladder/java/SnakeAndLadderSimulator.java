@@ -0,0 +1,310 @@
+package snake_and_ladder.java;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+// Per-worker counters for a batch of headless games.
+// Each worker thread fills its own accumulator across all the chunks it runs, and they are
+// merged once at the end, so the per-cell arrays cost threads x board size, not chunks x board size.
+class SimulationAccumulator {
+    private long[] lengthHistogram;   // index = number of turns the game took
+    private long[] seatWins;          // index = seat order (0 = first to roll)
+    private long[] entityHits;        // index = start cell of the snake / ladder
+    private long[] cellVisits;        // index = cell a token came to rest on
+    private long gamesPlayed;
+    private long unfinishedGames;
+
+    public SimulationAccumulator(int numPlayers, int boardSize) {
+        lengthHistogram = new long[64];
+        seatWins = new long[numPlayers];
+        entityHits = new long[boardSize + 1];
+        cellVisits = new long[boardSize + 1];
+    }
+
+    public void recordWin(int seat, int turns) {
+        if(turns >= lengthHistogram.length) {
+            lengthHistogram = Arrays.copyOf(lengthHistogram, Math.max(turns + 1, lengthHistogram.length * 2));
+        }
+        lengthHistogram[turns]++;
+        seatWins[seat]++;
+        gamesPlayed++;
+    }
+
+    public void recordUnfinished() {
+        unfinishedGames++;
+        gamesPlayed++;
+    }
+
+    public void recordEntityHit(int position) {
+        entityHits[position]++;
+    }
+
+    public void recordVisit(int position) {
+        cellVisits[position]++;
+    }
+
+    public SimulationAccumulator merge(SimulationAccumulator other) {
+        if(other.lengthHistogram.length > lengthHistogram.length) {
+            lengthHistogram = Arrays.copyOf(lengthHistogram, other.lengthHistogram.length);
+        }
+        for(int i = 0; i < other.lengthHistogram.length; i++) {
+            lengthHistogram[i] += other.lengthHistogram[i];
+        }
+        for(int i = 0; i < seatWins.length; i++) {
+            seatWins[i] += other.seatWins[i];
+        }
+        for(int i = 0; i < entityHits.length; i++) {
+            entityHits[i] += other.entityHits[i];
+            cellVisits[i] += other.cellVisits[i];
+        }
+        gamesPlayed += other.gamesPlayed;
+        unfinishedGames += other.unfinishedGames;
+        return this;
+    }
+
+    public long[] getLengthHistogram() {
+        return lengthHistogram;
+    }
+
+    public long[] getSeatWins() {
+        return seatWins;
+    }
+
+    public long[] getEntityHits() {
+        return entityHits;
+    }
+
+    public long[] getCellVisits() {
+        return cellVisits;
+    }
+
+    public long getGamesPlayed() {
+        return gamesPlayed;
+    }
+
+    public long getUnfinishedGames() {
+        return unfinishedGames;
+    }
+}
+
+// Aggregate statistics of a simulation run
+class SimulationResult {
+    private Board board;
+    private SimulationAccumulator totals;
+    private long finishedGames;
+    private double meanLength;
+    private int medianLength;
+    private int p99Length;
+
+    public SimulationResult(Board board, SimulationAccumulator totals) {
+        this.board = board;
+        this.totals = totals;
+
+        long[] histogram = totals.getLengthHistogram();
+        long turnSum = 0;
+        for(int turns = 0; turns < histogram.length; turns++) {
+            finishedGames += histogram[turns];
+            turnSum += histogram[turns] * turns;
+        }
+        meanLength = finishedGames == 0 ? 0 : (double) turnSum / finishedGames;
+        medianLength = percentile(0.50);
+        p99Length = percentile(0.99);
+    }
+
+    // Smallest game length such that at least the given fraction of finished games took no longer
+    private int percentile(double fraction) {
+        if(finishedGames == 0) return 0;
+
+        long[] histogram = totals.getLengthHistogram();
+        long target = (long) Math.ceil(fraction * finishedGames);
+        long seen = 0;
+        for(int turns = 0; turns < histogram.length; turns++) {
+            seen += histogram[turns];
+            if(seen >= target) return turns;
+        }
+        return histogram.length - 1;
+    }
+
+    public long getGamesPlayed() {
+        return totals.getGamesPlayed();
+    }
+
+    public long getUnfinishedGames() {
+        return totals.getUnfinishedGames();
+    }
+
+    public double getMeanLength() {
+        return meanLength;
+    }
+
+    public int getMedianLength() {
+        return medianLength;
+    }
+
+    public int getP99Length() {
+        return p99Length;
+    }
+
+    public double getWinRate(int seat) {
+        return finishedGames == 0 ? 0 : (double) totals.getSeatWins()[seat] / finishedGames;
+    }
+
+    public long getHitCount(BoardEntity entity) {
+        return totals.getEntityHits()[entity.getStart()];
+    }
+
+    public long getVisitCount(int cell) {
+        return totals.getCellVisits()[cell];
+    }
+
+    public BoardHeatmap getHeatmap() {
+        return new BoardHeatmap(board, totals);
+    }
+
+    public void display() {
+        System.out.println("\n=== Simulation Result ===");
+        System.out.println("Games played: " + getGamesPlayed() + " (unfinished: " + getUnfinishedGames() + ")");
+        System.out.printf("Game length (turns): mean %.2f, median %d, p99 %d%n", meanLength, medianLength, p99Length);
+
+        System.out.println("\nWin rate by seat:");
+        for(int seat = 0; seat < totals.getSeatWins().length; seat++) {
+            System.out.printf("Seat %d: %.2f%%%n", seat + 1, getWinRate(seat) * 100);
+        }
+
+        System.out.println("\nSnake / ladder hits:");
+        for(BoardEntity entity : board.getSnakesAndLadders()) {
+            System.out.println(entity.name() + " " + entity.getStart() + " -> " + entity.getEnd() + ": " + getHitCount(entity));
+        }
+        System.out.println("=========================");
+    }
+}
+
+// Headless Monte Carlo simulator.
+// Plays games with the same Board, Dice and SnakeAndLadderRules as SnakeAndLadderGame,
+// but without Scanner input or console output, spread over the fork-join pool.
+class SnakeAndLadderSimulator {
+    private static final int DEFAULT_MAX_TURNS = 100_000;
+    private static final int ROLL_BATCH = 64;
+
+    private Board board;
+    private Dice dice;
+    private SnakeAndLadderRules rules;
+    private MoveTable moveTable;
+    private int maxRoll;
+    private int numPlayers;
+    private int maxTurnsPerGame;
+
+    public SnakeAndLadderSimulator(Board b, Dice d, SnakeAndLadderRules r, int numPlayers) {
+        this(b, d, r, numPlayers, DEFAULT_MAX_TURNS);
+    }
+
+    public SnakeAndLadderSimulator(Board b, Dice d, SnakeAndLadderRules r, int numPlayers, int maxTurnsPerGame) {
+        if(numPlayers < 1) {
+            throw new IllegalArgumentException("Need at least 1 player to simulate");
+        }
+        BoardValidationReport report = b.validate(d.getFaces());
+        if(!report.isValid()) {
+            throw new IllegalArgumentException("Board cannot be simulated: " + report.getErrors().get(0));
+        }
+        board = b.compile();  // array lookups on the move path
+        dice = d;
+        rules = r;
+        maxRoll = r.getDiceCount() * d.getFaces();
+        moveTable = r.compile(board, maxRoll);
+        this.numPlayers = numPlayers;
+        this.maxTurnsPerGame = maxTurnsPerGame;
+    }
+
+    public SimulationResult run(int numGames) {
+        // A few chunks per core keeps the fork-join pool busy even if some chunks run long games
+        int chunks = (int) Math.min(numGames, ForkJoinPool.getCommonPoolParallelism() * 8L);
+        if(chunks == 0) {
+            return new SimulationResult(board, newAccumulator());
+        }
+
+        Map<Thread, SimulationAccumulator> perThread = new ConcurrentHashMap<>();
+        IntStream.range(0, chunks)
+            .parallel()
+            .forEach(chunk -> {
+                int base = numGames / chunks;
+                int extra = numGames % chunks;
+                long firstGame = (long) chunk * base + Math.min(chunk, extra);
+                SimulationAccumulator acc = perThread.computeIfAbsent(Thread.currentThread(), t -> newAccumulator());
+                playChunk(firstGame, base + (chunk < extra ? 1 : 0), acc);
+            });
+
+        SimulationAccumulator totals = newAccumulator();
+        for(SimulationAccumulator acc : perThread.values()) {
+            totals.merge(acc);
+        }
+        return new SimulationResult(board, totals);
+    }
+
+    private SimulationAccumulator newAccumulator() {
+        return new SimulationAccumulator(numPlayers, board.getBoardSize());
+    }
+
+    private void playChunk(long firstGame, int games, SimulationAccumulator acc) {
+        int[] positions = new int[numPlayers];
+        int[] rolls = new int[ROLL_BATCH];
+        for(int g = 0; g < games; g++) {
+            Arrays.fill(positions, 0);
+            // Dice per game index, so seeded runs give the same result for any chunking
+            playGame(dice.forGame(firstGame + g), positions, rolls, acc);
+        }
+    }
+
+    // Same turn sequence as SnakeAndLadderGame.playTurn(), seats rotate in order
+    private void playGame(Dice gameDice, int[] positions, int[] rolls, SimulationAccumulator acc) {
+        int boardSize = board.getBoardSize();
+        int diceCount = rules.getDiceCount();
+        int penaltyStreak = rules.getExtraTurnPenaltyStreak();
+        int seat = 0;
+        int nextRoll = rolls.length;
+        int extraTurnStreak = 0;
+        int turnStartPosition = 0;
+
+        for(int turn = 1; turn <= maxTurnsPerGame; turn++) {
+            int diceValue = 0;
+            for(int d = 0; d < diceCount; d++) {
+                if(nextRoll == rolls.length) {
+                    gameDice.rollBatch(rolls);
+                    nextRoll = 0;
+                }
+                diceValue += rolls[nextRoll++];
+            }
+            int currentPos = positions[seat];
+            if(extraTurnStreak == 0) {
+                turnStartPosition = currentPos;
+            }
+
+            int newPos = moveTable.next(currentPos, diceValue);
+            if(newPos >= 0) {
+                int intermediatePos = moveTable.landing(currentPos, diceValue);
+                if(newPos != intermediatePos) {
+                    acc.recordEntityHit(intermediatePos);
+                }
+                positions[seat] = newPos;
+                acc.recordVisit(newPos);
+
+                if(rules.checkWinCondition(newPos, boardSize)) {
+                    acc.recordWin(seat, turn);
+                    return;
+                }
+            }
+
+            if(rules.grantsExtraTurn(diceValue, maxRoll)) {
+                extraTurnStreak++;
+                if(penaltyStreak == 0 || extraTurnStreak < penaltyStreak) {
+                    continue;  // same seat rolls again
+                }
+                positions[seat] = turnStartPosition;
+            }
+            extraTurnStreak = 0;
+            seat = (seat + 1) % numPlayers;
+        }
+        acc.recordUnfinished();
+    }
+}
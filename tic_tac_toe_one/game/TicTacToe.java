@@ -16,10 +16,14 @@ import tic_tac_toe_one.utils.Symbol;
 
 public class TicTacToe implements Boardgame, Subject {
 
+    public static final String TOPIC_TURN = "turn";
+    public static final String TOPIC_RESULT = "result";
+
     private Board board;
     private RulesProcessor rules;
     private Deque<PlayerProcessor> players;
     private ArrayList<Observer> observers;
+    private ArrayList<String> observerTopics; // topic of observers.get(i), null for every topic
     private boolean isGameOver;
 
     public TicTacToe(int boardSize) {
@@ -27,6 +31,7 @@ public class TicTacToe implements Boardgame, Subject {
         rules = new RulesProcessor(new StandardRulesStrategy());
         players = new ArrayDeque<PlayerProcessor>();
         observers = new ArrayList<Observer>();
+        observerTopics = new ArrayList<String>();
     }
 
     public Deque<PlayerProcessor> loadPlayers() {
@@ -61,12 +66,23 @@ public class TicTacToe implements Boardgame, Subject {
 
     @Override
     public void subscribe(Observer notifier) {
+        subscribe(null, notifier);
+    }
+
+    // only messages for one topic (TOPIC_TURN / TOPIC_RESULT)
+    public void subscribe(String topic, Observer notifier) {
         observers.add(notifier);
+        observerTopics.add(topic);
     }
 
     @Override
     public void unsubscribe(Observer observer) {
-        observers.remove(observer);
+        for (int i = observers.size() - 1; i >= 0; i--) {
+            if (observers.get(i) == observer) {
+                observers.remove(i);
+                observerTopics.remove(i);
+            }
+        }
     }
 
     public void addRules(RulesProcessor rules) {
@@ -83,20 +99,20 @@ public class TicTacToe implements Boardgame, Subject {
             // print board.
             board.display();
 
-            notify(player.getName() + " turn");
+            notify(TOPIC_TURN, player.getName() + " turn");
 
             // let player make move
             board.setCell(player.makeMove(board), player.getSymbol());
 
             // check if game is winning.
             if (rules.checkWinBoard(board, player.getSymbol())) {
-                notify(player.getName() + " has won the game !!!!!!");
+                notify(TOPIC_RESULT, player.getName() + " has won the game !!!!!!");
                 isGameOver = true;
                 break;
             }
 
             if (rules.checkDraw(board)) {
-                notify("Game is Draw");
+                notify(TOPIC_RESULT, "Game is Draw");
                 isGameOver = true;
                 break;
             }
@@ -110,8 +126,16 @@ public class TicTacToe implements Boardgame, Subject {
 
     @Override
     public void notify(String msg) {
-        for (Observer observer : observers) {
-            observer.notify(msg);
+        notify(null, msg);
+    }
+
+    // observers of every topic get all messages, the others only those of their topic
+    public void notify(String topic, String msg) {
+        for (int i = 0; i < observers.size(); i++) {
+            String observerTopic = observerTopics.get(i);
+            if (observerTopic == null || observerTopic.equals(topic)) {
+                observers.get(i).notify(msg);
+            }
         }
     }
 }